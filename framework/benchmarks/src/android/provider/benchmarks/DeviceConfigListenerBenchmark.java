@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.provider.benchmarks;
+
+import android.net.Uri;
+import android.provider.DeviceConfig;
+import android.provider.DeviceConfig.OnPropertiesChangedListener;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.filters.LargeTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Cost of delivering one change to {@code N} listeners of a namespace: reading the changed values
+ * back, building the {@link DeviceConfig.Properties} and running each listener. Listeners run on
+ * the notifying thread, so the measurement does not include any thread hop.
+ */
+@LargeTest
+@RunWith(Parameterized.class)
+public class DeviceConfigListenerBenchmark {
+    private static final String NAMESPACE = "benchmark";
+
+    @Parameters(name = "listeners={0}")
+    public static Collection<Object[]> listenerCounts() {
+        return Arrays.asList(new Object[][] {{1}, {10}, {100}});
+    }
+
+    @Rule
+    public final BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    private final int mListenerCount;
+    private final List<OnPropertiesChangedListener> mListeners = new ArrayList<>();
+    private FakeDeviceConfigDataStore mDataStore;
+    private int mDeliveries;
+
+    public DeviceConfigListenerBenchmark(int listenerCount) {
+        mListenerCount = listenerCount;
+    }
+
+    @Before
+    public void setUp() {
+        mDataStore = new FakeDeviceConfigDataStore();
+        for (int i = 0; i < 10; i++) {
+            mDataStore.setProperty(NAMESPACE, "flag_" + i, Integer.toString(i), false);
+        }
+        DeviceConfig.setDataStoreForTesting(mDataStore);
+        for (int i = 0; i < mListenerCount; i++) {
+            OnPropertiesChangedListener listener = properties -> mDeliveries++;
+            DeviceConfig.addOnPropertiesChangedListener(NAMESPACE, Runnable::run, listener);
+            mListeners.add(listener);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        for (OnPropertiesChangedListener listener : mListeners) {
+            DeviceConfig.removeOnPropertiesChangedListener(listener);
+        }
+        DeviceConfig.setDataStoreForTesting(null);
+    }
+
+    @Test
+    public void handleChange_oneFlag() {
+        Uri uri = FakeDeviceConfigDataStore.changeUri(NAMESPACE, "flag_1");
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            mDataStore.notifyChange(NAMESPACE, uri);
+        }
+    }
+
+    @Test
+    public void handleChange_tenFlags() {
+        String[] names = new String[10];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "flag_" + i;
+        }
+        Uri uri = FakeDeviceConfigDataStore.changeUri(NAMESPACE, names);
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            mDataStore.notifyChange(NAMESPACE, uri);
+        }
+    }
+}
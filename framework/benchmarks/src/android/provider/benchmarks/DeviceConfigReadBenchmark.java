@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.provider.benchmarks;
+
+import android.provider.DeviceConfig;
+import android.provider.DeviceConfig.Properties;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.filters.LargeTest;
+import androidx.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Cost of reading flags through {@link DeviceConfig}, excluding the settings provider.
+ */
+@LargeTest
+@RunWith(AndroidJUnit4.class)
+public class DeviceConfigReadBenchmark {
+    private static final String NAMESPACE = "benchmark";
+    private static final String OVERRIDES_NAMESPACE = "device_config_overrides";
+    private static final int FLAG_COUNT = 100;
+    private static final int OVERRIDE_COUNT = 10;
+
+    @Rule
+    public final BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    private FakeDeviceConfigDataStore mDataStore;
+
+    @Before
+    public void setUp() {
+        mDataStore = new FakeDeviceConfigDataStore();
+        for (int i = 0; i < FLAG_COUNT; i++) {
+            mDataStore.setProperty(NAMESPACE, "flag_" + i, Integer.toString(i), false);
+        }
+        mDataStore.setProperty(NAMESPACE, "boolean_flag", "true", false);
+        mDataStore.setProperty(NAMESPACE, "float_flag", "0.5", false);
+        DeviceConfig.setDataStoreForTesting(mDataStore);
+    }
+
+    @After
+    public void tearDown() {
+        DeviceConfig.setDataStoreForTesting(null);
+    }
+
+    private void addOverrides() {
+        for (int i = 0; i < OVERRIDE_COUNT; i++) {
+            mDataStore.setProperty(OVERRIDES_NAMESPACE, NAMESPACE + ":flag_" + i, "override",
+                    false);
+        }
+    }
+
+    @Test
+    public void getProperty_singleFlag() {
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            DeviceConfig.getProperty(NAMESPACE, "flag_1");
+        }
+    }
+
+    @Test
+    public void getProperty_singleFlagWithOverrides() {
+        addOverrides();
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            DeviceConfig.getProperty(NAMESPACE, "flag_1");
+        }
+    }
+
+    @Test
+    public void getProperties_wholeNamespace() {
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            DeviceConfig.getProperties(NAMESPACE);
+        }
+    }
+
+    /** Measures the merge of local overrides into a whole namespace read. */
+    @Test
+    public void getProperties_wholeNamespaceWithOverrides() {
+        addOverrides();
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            DeviceConfig.getProperties(NAMESPACE);
+        }
+    }
+
+    @Test
+    public void properties_typedGetters() {
+        Properties properties = DeviceConfig.getProperties(NAMESPACE);
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            properties.getString("flag_1", null);
+            properties.getInt("flag_2", 0);
+            properties.getLong("flag_3", 0);
+            properties.getFloat("float_flag", 0);
+            properties.getBoolean("boolean_flag", false);
+        }
+    }
+
+    @Test
+    public void properties_missingKey() {
+        Properties properties = DeviceConfig.getProperties(NAMESPACE);
+        BenchmarkState state = mBenchmarkRule.getState();
+        while (state.keepRunning()) {
+            properties.getInt("missing", 0);
+        }
+    }
+}
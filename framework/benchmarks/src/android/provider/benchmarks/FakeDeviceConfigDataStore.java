@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.provider.benchmarks;
+
+import android.annotation.NonNull;
+import android.annotation.Nullable;
+import android.content.ContentResolver;
+import android.database.ContentObserver;
+import android.net.Uri;
+import android.provider.DeviceConfig;
+import android.provider.DeviceConfigDataStore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * In-process {@link DeviceConfigDataStore}, so that benchmarks measure DeviceConfig itself rather
+ * than the settings provider.
+ *
+ * <p>Like {@code SettingsConfigDataStore}, reads return a fresh {@link DeviceConfig.Properties}.
+ * Observers are only notified through {@link #notifyChange}, on the calling thread.
+ */
+final class FakeDeviceConfigDataStore implements DeviceConfigDataStore {
+    private final Map<String, Map<String, String>> mValues = new HashMap<>();
+    private final Map<String, List<ContentObserver>> mObservers = new HashMap<>();
+
+    @Override
+    @NonNull
+    public Map<String, String> getAllProperties() {
+        Map<String, String> all = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> namespace : mValues.entrySet()) {
+            for (Map.Entry<String, String> value : namespace.getValue().entrySet()) {
+                all.put(namespace.getKey() + "/" + value.getKey(), value.getValue());
+            }
+        }
+        return all;
+    }
+
+    @Override
+    @NonNull
+    public DeviceConfig.Properties getProperties(@NonNull String namespace,
+            @NonNull String... names) {
+        Map<String, String> values = mValues.getOrDefault(namespace, new HashMap<>());
+        Map<String, String> result;
+        if (names.length == 0) {
+            result = new HashMap<>(values);
+        } else {
+            result = new HashMap<>();
+            for (String name : names) {
+                String value = values.get(name);
+                if (value != null) {
+                    result.put(name, value);
+                }
+            }
+        }
+        return new DeviceConfig.Properties(namespace, result);
+    }
+
+    @Override
+    public boolean setProperties(@NonNull DeviceConfig.Properties properties) {
+        mValues.put(properties.getNamespace(), new HashMap<>(properties.getPropertyValues()));
+        return true;
+    }
+
+    @Override
+    public boolean setProperty(@NonNull String namespace, @NonNull String name,
+            @Nullable String value, boolean makeDefault) {
+        mValues.computeIfAbsent(namespace, k -> new HashMap<>()).put(name, value);
+        return true;
+    }
+
+    @Override
+    public boolean deleteProperty(@NonNull String namespace, @NonNull String name) {
+        Map<String, String> values = mValues.get(namespace);
+        if (values != null) {
+            values.remove(name);
+        }
+        return true;
+    }
+
+    @Override
+    public void resetToDefaults(int resetMode, @Nullable String namespace) {
+        if (namespace == null) {
+            mValues.clear();
+        } else {
+            mValues.remove(namespace);
+        }
+    }
+
+    @Override
+    public void setSyncDisabledMode(int syncDisabledMode) {}
+
+    @Override
+    public int getSyncDisabledMode() {
+        return 0;
+    }
+
+    @Override
+    public void setMonitorCallback(@NonNull ContentResolver resolver, @NonNull Executor executor,
+            @NonNull DeviceConfig.MonitorCallback callback) {}
+
+    @Override
+    public void clearMonitorCallback(@NonNull ContentResolver resolver) {}
+
+    @Override
+    public void registerContentObserver(@NonNull String namespace, boolean notifyForescendants,
+            ContentObserver contentObserver) {
+        mObservers.computeIfAbsent(namespace, k -> new ArrayList<>()).add(contentObserver);
+    }
+
+    @Override
+    public void unregisterContentObserver(@NonNull ContentObserver contentObserver) {
+        for (List<ContentObserver> observers : mObservers.values()) {
+            observers.remove(contentObserver);
+        }
+    }
+
+    /**
+     * Returns the uri the settings provider would notify for a change of {@code names}.
+     */
+    @NonNull
+    static Uri changeUri(@NonNull String namespace, @NonNull String... names) {
+        Uri.Builder builder = new Uri.Builder()
+                .scheme(ContentResolver.SCHEME_CONTENT)
+                .authority("settings")
+                .appendPath("config")
+                .appendPath(namespace);
+        for (String name : names) {
+            builder.appendPath(name);
+        }
+        return builder.build();
+    }
+
+    /** Delivers {@code uri} to the observers of {@code namespace}, on the calling thread. */
+    void notifyChange(@NonNull String namespace, @NonNull Uri uri) {
+        List<ContentObserver> observers = mObservers.get(namespace);
+        if (observers != null) {
+            for (int i = 0; i < observers.size(); i++) {
+                observers.get(i).onChange(false, uri);
+            }
+        }
+    }
+}
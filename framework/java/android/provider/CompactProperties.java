@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.provider;
+
+import android.annotation.NonNull;
+import android.os.BadParcelableException;
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The values of one namespace as the DeviceConfig service sends them to clients, in a compact
+ * encoding that unparcels straight into a {@link DeviceConfig.Properties}.
+ * <p>
+ * A namespace of {@link NamespaceRegistry} is written as its id, any other as a string. The values
+ * follow as a single byte array, with one entry per value, sorted by the unsigned bytes of the
+ * key:
+ * <pre>
+ *   varint length of the prefix shared with the previous key
+ *   varint length of the rest of the key, then its UTF-8 bytes
+ *   varint length of the value plus one, 0 for a null value, then its UTF-8 bytes
+ * </pre>
+ * Flags of a namespace tend to share long prefixes, so keys take a fraction of the two bytes per
+ * char and the type tag of each string of a {@code Map} in a parcel.
+ *
+ * @hide
+ */
+public final class CompactProperties implements Parcelable {
+    private final String mNamespace;
+    private final Map<String, String> mValues;
+    private DeviceConfig.Properties mProperties;
+
+    /**
+     * @param values the values to send, which must not change until the object is written
+     */
+    public CompactProperties(@NonNull String namespace, @NonNull Map<String, String> values) {
+        mNamespace = namespace;
+        mValues = values;
+    }
+
+    private CompactProperties(DeviceConfig.Properties properties) {
+        mNamespace = properties.getNamespace();
+        mValues = null;
+        mProperties = properties;
+    }
+
+    /** Returns the values, without copying them if they were unparceled. */
+    @NonNull
+    public DeviceConfig.Properties getProperties() {
+        if (mProperties == null) {
+            mProperties = new DeviceConfig.Properties(mNamespace, mValues);
+        }
+        return mProperties;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(@NonNull Parcel dest, int flags) {
+        int id = NamespaceRegistry.getId(mNamespace);
+        dest.writeInt(id);
+        if (id == NamespaceRegistry.UNKNOWN_ID) {
+            dest.writeString8(mNamespace);
+        }
+        Map<String, String> values = mValues != null ? mValues : mProperties.getPropertyValues();
+        dest.writeInt(values.size());
+        dest.writeByteArray(encode(values));
+    }
+
+    @NonNull
+    public static final Creator<CompactProperties> CREATOR = new Creator<CompactProperties>() {
+        @Override
+        public CompactProperties createFromParcel(Parcel source) {
+            int id = source.readInt();
+            String namespace = id == NamespaceRegistry.UNKNOWN_ID
+                    ? source.readString8()
+                    : NamespaceRegistry.getNamespace(id);
+            if (namespace == null) {
+                throw new BadParcelableException("Unknown namespace " + id);
+            }
+            int count = source.readInt();
+            byte[] data = source.createByteArray();
+            // every entry takes at least three bytes
+            if (data == null || count < 0 || count > data.length / 3) {
+                throw new BadParcelableException("Corrupt properties of " + namespace);
+            }
+            return new CompactProperties(
+                    DeviceConfig.Properties.wrap(namespace, decode(namespace, count, data)));
+        }
+
+        @Override
+        public CompactProperties[] newArray(int size) {
+            return new CompactProperties[size];
+        }
+    };
+
+    private static byte[] encode(Map<String, String> values) {
+        byte[][][] entries = new byte[values.size()][][];
+        int i = 0;
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            String value = entry.getValue();
+            entries[i++] = new byte[][] {
+                    entry.getKey().getBytes(StandardCharsets.UTF_8),
+                    value == null ? null : value.getBytes(StandardCharsets.UTF_8)};
+        }
+        Arrays.sort(entries, (a, b) -> Arrays.compareUnsigned(a[0], b[0]));
+
+        int size = 0;
+        byte[] previous = new byte[0];
+        for (byte[][] entry : entries) {
+            int suffix = entry[0].length - sharedPrefix(previous, entry[0]);
+            int value = entry[1] == null ? 0 : entry[1].length + 1;
+            size += varintSize(entry[0].length - suffix) + varintSize(suffix) + suffix
+                    + varintSize(value) + Math.max(0, value - 1);
+            previous = entry[0];
+        }
+
+        byte[] out = new byte[size];
+        int pos = 0;
+        previous = new byte[0];
+        for (byte[][] entry : entries) {
+            byte[] key = entry[0];
+            int prefix = sharedPrefix(previous, key);
+            pos = writeVarint(out, pos, prefix);
+            pos = writeVarint(out, pos, key.length - prefix);
+            System.arraycopy(key, prefix, out, pos, key.length - prefix);
+            pos += key.length - prefix;
+            byte[] value = entry[1];
+            pos = writeVarint(out, pos, value == null ? 0 : value.length + 1);
+            if (value != null) {
+                System.arraycopy(value, 0, out, pos, value.length);
+                pos += value.length;
+            }
+            previous = key;
+        }
+        return out;
+    }
+
+    private static int sharedPrefix(byte[] previous, byte[] key) {
+        int mismatch = Arrays.mismatch(previous, key);
+        // keys of a map are distinct, so key can only equal previous for the first entry
+        return mismatch < 0 ? key.length : mismatch;
+    }
+
+    private static HashMap<String, String> decode(String namespace, int count, byte[] data) {
+        HashMap<String, String> values = new HashMap<>(count * 4 / 3 + 1);
+        byte[] key = new byte[64];
+        int keyLength = 0;
+        int[] pos = new int[1];
+        try {
+            for (int i = 0; i < count; i++) {
+                int prefix = readVarint(data, pos);
+                int suffix = readVarint(data, pos);
+                if (prefix < 0 || prefix > keyLength || suffix < 0
+                        || suffix > data.length - pos[0]) {
+                    throw new BadParcelableException("Corrupt properties of " + namespace);
+                }
+                keyLength = prefix + suffix;
+                if (keyLength > key.length) {
+                    key = Arrays.copyOf(key, Math.max(keyLength, key.length * 2));
+                }
+                System.arraycopy(data, pos[0], key, prefix, suffix);
+                pos[0] += suffix;
+                int valueLength = readVarint(data, pos) - 1;
+                if (valueLength < -1 || valueLength > data.length - pos[0]) {
+                    throw new BadParcelableException("Corrupt properties of " + namespace);
+                }
+                String value = null;
+                if (valueLength >= 0) {
+                    value = new String(data, pos[0], valueLength, StandardCharsets.UTF_8);
+                    pos[0] += valueLength;
+                }
+                values.put(new String(key, 0, keyLength, StandardCharsets.UTF_8), value);
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new BadParcelableException("Truncated properties of " + namespace);
+        }
+        return values;
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    private static int writeVarint(byte[] out, int pos, int value) {
+        while ((value & ~0x7f) != 0) {
+            out[pos++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out[pos++] = (byte) value;
+        return pos;
+    }
+
+    private static int readVarint(byte[] data, int[] pos) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = data[pos[0]++];
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new BadParcelableException("Malformed varint");
+    }
+}
@@ -40,6 +40,7 @@ import android.util.Log;
 import android.util.Pair;
 
 import com.android.internal.annotations.GuardedBy;
+import com.android.internal.annotations.VisibleForTesting;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -758,9 +759,7 @@ public final class DeviceConfig {
      */
     @NonNull
     private static final List<String> PUBLIC_NAMESPACES =
-            Arrays.asList(NAMESPACE_TEXTCLASSIFIER, NAMESPACE_RUNTIME, NAMESPACE_STATSD_JAVA,
-                    NAMESPACE_STATSD_JAVA_BOOT, NAMESPACE_SELECTION_TOOLBAR, NAMESPACE_AUTOFILL,
-                    NAMESPACE_DEVICE_POLICY_MANAGER, NAMESPACE_CONTENT_CAPTURE);
+            Collections.unmodifiableList(Arrays.asList(NamespaceRegistry.PUBLIC_NAMESPACES));
     /**
      * Privacy related properties definitions.
      *
@@ -1033,6 +1032,15 @@ public final class DeviceConfig {
     private static final String TAG = "DeviceConfig";
 
     private static final DeviceConfigDataStore sDataStore = new SettingsConfigDataStore();
+    /**
+     * Replaces sDataStore in benchmarks, see {@link #setDataStoreForTesting}. Not volatile: it is
+     * only set before a benchmark starts, on the thread that then calls DeviceConfig.
+     */
+    @Nullable
+    private static DeviceConfigDataStore sDataStoreForTesting;
+
+    private static final DeviceConfigLatencyStats sLatencyStats =
+            DeviceConfigLatencyStats.getClientStats();
 
     private static final String DEVICE_CONFIG_OVERRIDES_NAMESPACE =
             "device_config_overrides";
@@ -1118,19 +1126,25 @@ public final class DeviceConfig {
     @NonNull
     @RequiresPermission(READ_DEVICE_CONFIG)
     public static Properties getProperties(@NonNull String namespace, @NonNull String... names) {
-        Properties propertiesWithoutOverrides =
-                getPropertiesWithoutOverrides(namespace, names);
-        if (SdkLevel.isAtLeastV()) {
-            return applyOverrides(propertiesWithoutOverrides);
-        } else {
-            return propertiesWithoutOverrides;
+        long startNanos = System.nanoTime();
+        try {
+            Properties propertiesWithoutOverrides =
+                    getPropertiesWithoutOverrides(namespace, names);
+            if (SdkLevel.isAtLeastV()) {
+                return applyOverrides(propertiesWithoutOverrides);
+            } else {
+                return propertiesWithoutOverrides;
+            }
+        } finally {
+            sLatencyStats.record(
+                    DeviceConfigLatencyStats.API_GET_PROPERTIES, namespace, startNanos);
         }
     }
 
     @NonNull
     private static Properties getPropertiesWithoutOverrides(@NonNull String namespace,
         @NonNull String... names) {
-        return sDataStore.getProperties(namespace, names);
+        return getDataStore().getProperties(namespace, names);
     }
 
     private static Properties applyOverrides(@NonNull Properties properties) {
@@ -1168,7 +1182,7 @@ public final class DeviceConfig {
     @SystemApi
     @NonNull
     public static Set<Properties> getAllProperties() {
-        Map<String, String> properties = sDataStore.getAllProperties();
+        Map<String, String> properties = getDataStore().getAllProperties();
         Map<String, Map<String, String>> propertyMaps = new HashMap<>();
         for (String flag : properties.keySet()) {
             String[] namespaceAndFlag = flag.split("/");
@@ -1417,7 +1431,12 @@ public final class DeviceConfig {
             return GmsModuleHooks.deviceConfigSetProperty(namespace, name, value);
         }
 
-        return sDataStore.setProperty(namespace, name, value, makeDefault);
+        long startNanos = System.nanoTime();
+        try {
+            return getDataStore().setProperty(namespace, name, value, makeDefault);
+        } finally {
+            sLatencyStats.record(DeviceConfigLatencyStats.API_SET_PROPERTY, namespace, startNanos);
+        }
     }
 
     /**
@@ -1443,7 +1462,13 @@ public final class DeviceConfig {
             return GmsModuleHooks.deviceConfigSetProperties(properties);
         }
 
-        return sDataStore.setProperties(properties);
+        long startNanos = System.nanoTime();
+        try {
+            return getDataStore().setProperties(properties);
+        } finally {
+            sLatencyStats.record(DeviceConfigLatencyStats.API_SET_PROPERTIES,
+                    properties.getNamespace(), startNanos);
+        }
     }
 
     /**
@@ -1458,7 +1483,13 @@ public final class DeviceConfig {
     @SystemApi
     @RequiresPermission(anyOf = {WRITE_DEVICE_CONFIG, WRITE_ALLOWLISTED_DEVICE_CONFIG})
     public static boolean deleteProperty(@NonNull String namespace, @NonNull String name) {
-        return sDataStore.deleteProperty(namespace, name);
+        long startNanos = System.nanoTime();
+        try {
+            return getDataStore().deleteProperty(namespace, name);
+        } finally {
+            sLatencyStats.record(
+                    DeviceConfigLatencyStats.API_DELETE_PROPERTY, namespace, startNanos);
+        }
     }
 
     /**
@@ -1493,7 +1524,7 @@ public final class DeviceConfig {
             throw new UnsupportedOperationException();
         }
 
-        sDataStore.resetToDefaults(resetMode, namespace);
+        getDataStore().resetToDefaults(resetMode, namespace);
     }
 
     /**
@@ -1511,7 +1542,7 @@ public final class DeviceConfig {
     @SystemApi
     @RequiresPermission(anyOf = {WRITE_DEVICE_CONFIG, READ_WRITE_SYNC_DISABLED_MODE_CONFIG})
     public static void setSyncDisabledMode(int syncDisabledMode) {
-        sDataStore.setSyncDisabledMode(syncDisabledMode);
+        getDataStore().setSyncDisabledMode(syncDisabledMode);
     }
 
     /**
@@ -1523,7 +1554,7 @@ public final class DeviceConfig {
     @SystemApi
     @RequiresPermission(anyOf = {WRITE_DEVICE_CONFIG, READ_WRITE_SYNC_DISABLED_MODE_CONFIG})
     public static int getSyncDisabledMode() {
-        return sDataStore.getSyncDisabledMode();
+        return getDataStore().getSyncDisabledMode();
     }
 
     /**
@@ -1597,7 +1628,7 @@ public final class DeviceConfig {
             @NonNull ContentResolver resolver,
             @NonNull @CallbackExecutor Executor executor,
             @NonNull MonitorCallback callback) {
-        sDataStore.setMonitorCallback(resolver, executor, callback);
+        getDataStore().setMonitorCallback(resolver, executor, callback);
     }
 
     /**
@@ -1609,7 +1640,7 @@ public final class DeviceConfig {
     @SystemApi
     @RequiresPermission(Manifest.permission.MONITOR_DEVICE_CONFIG_ACCESS)
     public static void clearMonitorCallback(@NonNull ContentResolver resolver) {
-        sDataStore.clearMonitorCallback(resolver);
+        getDataStore().clearMonitorCallback(resolver);
     }
 
     /**
@@ -1635,7 +1666,7 @@ public final class DeviceConfig {
                     }
                 }
             };
-            sDataStore
+            getDataStore()
                     .registerContentObserver(namespace, true, contentObserver);
             sNamespaces.put(namespace, new Pair<>(contentObserver, 1));
         }
@@ -1659,7 +1690,7 @@ public final class DeviceConfig {
             sNamespaces.put(namespace, new Pair<>(namespaceCount.first, namespaceCount.second - 1));
         } else {
             // Decrementing a namespace to zero means we no longer need its ContentObserver.
-            sDataStore.unregisterContentObserver(namespaceCount.first);
+            getDataStore().unregisterContentObserver(namespaceCount.first);
             sNamespaces.remove(namespace);
         }
     }
@@ -1669,6 +1700,16 @@ public final class DeviceConfig {
         List<String> pathSegments = uri.getPathSegments();
         // pathSegments(0) is "config"
         final String namespace = pathSegments.get(1);
+        long startNanos = System.nanoTime();
+        try {
+            dispatchChange(namespace, pathSegments);
+        } finally {
+            sLatencyStats.record(DeviceConfigLatencyStats.API_HANDLE_CHANGE, namespace, startNanos);
+        }
+    }
+
+    private static void dispatchChange(@NonNull String namespace,
+            @NonNull List<String> pathSegments) {
         Properties.Builder propBuilder = new Properties.Builder(namespace);
         try {
             Properties allProperties = getProperties(namespace);
@@ -1695,6 +1736,24 @@ public final class DeviceConfig {
         }
     }
 
+    private static DeviceConfigDataStore getDataStore() {
+        DeviceConfigDataStore dataStore = sDataStoreForTesting;
+        return dataStore != null ? dataStore : sDataStore;
+    }
+
+    /**
+     * Makes this process read and write flags through {@code dataStore} instead of the settings
+     * provider, so that benchmarks do not change the device's flags. Listeners that are already
+     * registered stay subscribed to the previous store.
+     *
+     * @param dataStore the store to use, or {@code null} to go back to the settings provider
+     * @hide
+     */
+    @VisibleForTesting
+    public static void setDataStoreForTesting(@Nullable DeviceConfigDataStore dataStore) {
+        sDataStoreForTesting = dataStore;
+    }
+
     /**
      * Returns list of namespaces that can be read without READ_DEVICE_CONFIG_PERMISSION;
      * @hide
@@ -1710,7 +1769,33 @@ public final class DeviceConfig {
      */
     @SystemApi
     public static @NonNull Set<String> getAdbWritableFlags() {
-        return WritableFlags.ALLOWLIST;
+        return WritableFlags.getAllowlist();
+    }
+
+    /**
+     * Returns whether flag {@code namespace/name} can be written with adb as non-root.
+     *
+     * <p>Equivalent to checking {@link #getAdbWritableFlags()} for {@code namespace + "/" + name}
+     * but does not need to build the combined key.
+     * @hide
+     */
+    @SystemApi(client = SystemApi.Client.MODULE_LIBRARIES)
+    public static boolean isAdbWritableFlag(@NonNull String namespace, @NonNull String name) {
+        Objects.requireNonNull(namespace);
+        Objects.requireNonNull(name);
+        return WritableFlags.isWritable(namespace, name);
+    }
+
+    /**
+     * Returns the sorted names of the flags in {@code namespace} that can be written with adb as
+     * non-root.
+     * @hide
+     */
+    @SystemApi(client = SystemApi.Client.MODULE_LIBRARIES)
+    public static @NonNull List<String> getAdbWritableFlagsForNamespace(
+            @NonNull String namespace) {
+        Objects.requireNonNull(namespace);
+        return WritableFlags.writableFlagsFor(namespace);
     }
 
     /**
@@ -1767,12 +1852,31 @@ public final class DeviceConfig {
          */
         @SystemApi(client = SystemApi.Client.MODULE_LIBRARIES)
         public Properties(@NonNull String namespace, @Nullable Map<String, String> keyValueMap) {
-            Objects.requireNonNull(namespace);
-            mNamespace = namespace;
-            mMap = new HashMap();
-            if (keyValueMap != null) {
-                mMap.putAll(keyValueMap);
-            }
+            this(namespace, keyValueMap == null
+                    ? new HashMap<String, String>() : new HashMap<String, String>(keyValueMap));
+        }
+
+        /**
+         * Takes ownership of {@code keyValueMap} instead of copying it, see {@link #wrap}. Within
+         * this file, an argument typed as {@link HashMap} selects this constructor, so pass one
+         * only when giving it up.
+         */
+        private Properties(@NonNull String namespace,
+                @NonNull HashMap<String, String> keyValueMap) {
+            mNamespace = Objects.requireNonNull(namespace);
+            mMap = keyValueMap;
+        }
+
+        /**
+         * Creates properties backed by {@code keyValueMap}, which must not be modified afterwards.
+         * For maps that were built only to create the properties.
+         *
+         * @hide
+         */
+        @NonNull
+        static Properties wrap(@NonNull String namespace,
+                @NonNull HashMap<String, String> keyValueMap) {
+            return new Properties(namespace, keyValueMap);
         }
 
         /**
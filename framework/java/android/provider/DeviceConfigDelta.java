@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.provider;
+
+import android.annotation.NonNull;
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The flags changed since a point of the DeviceConfig service's change journal, as returned by
+ * {@link DeviceConfigManager#getChangesSince}.
+ * <p>
+ * Changes to the same flag are coalesced: the delta has the latest value of each changed flag,
+ * {@code null} if it was deleted. If the journal no longer covers the requested point, because it
+ * is too old or comes from an earlier run of the service, the delta is empty and
+ * {@link #isResyncRequired()} is set; the caller must then read the namespaces it needs again.
+ * Either way, {@link #getEpoch()} and {@link #getSequence()} are the point to pass to the next
+ * call.
+ *
+ * @hide
+ */
+public final class DeviceConfigDelta implements Parcelable {
+    private final long mEpoch;
+    private final long mSequence;
+    private final boolean mResyncRequired;
+    private final Map<String, Map<String, String>> mChanges;
+
+    /**
+     * @param changes the latest value of each changed flag, by namespace and then key
+     */
+    public DeviceConfigDelta(long epoch, long sequence, boolean resyncRequired,
+            @NonNull Map<String, Map<String, String>> changes) {
+        mEpoch = epoch;
+        mSequence = sequence;
+        mResyncRequired = resyncRequired;
+        mChanges = changes;
+    }
+
+    /** Returns a delta telling the caller to read everything again from {@code sequence}. */
+    @NonNull
+    public static DeviceConfigDelta resync(long epoch, long sequence) {
+        return new DeviceConfigDelta(epoch, sequence, true, Collections.emptyMap());
+    }
+
+    /** Identifies the run of the service; sequence numbers from other runs are meaningless. */
+    public long getEpoch() {
+        return mEpoch;
+    }
+
+    /** Returns the sequence number of the last change included. */
+    public long getSequence() {
+        return mSequence;
+    }
+
+    /** Returns whether the changes since the requested point are no longer known. */
+    public boolean isResyncRequired() {
+        return mResyncRequired;
+    }
+
+    /** Returns the latest value of each changed flag, by namespace and then key. */
+    @NonNull
+    public Map<String, Map<String, String>> getChanges() {
+        return mChanges;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(@NonNull Parcel dest, int flags) {
+        dest.writeLong(mEpoch);
+        dest.writeLong(mSequence);
+        dest.writeBoolean(mResyncRequired);
+        dest.writeInt(mChanges.size());
+        for (Map.Entry<String, Map<String, String>> namespace : mChanges.entrySet()) {
+            dest.writeString(namespace.getKey());
+            dest.writeInt(namespace.getValue().size());
+            for (Map.Entry<String, String> flag : namespace.getValue().entrySet()) {
+                dest.writeString(flag.getKey());
+                dest.writeString(flag.getValue());
+            }
+        }
+    }
+
+    @NonNull
+    public static final Creator<DeviceConfigDelta> CREATOR = new Creator<DeviceConfigDelta>() {
+        @Override
+        public DeviceConfigDelta createFromParcel(Parcel source) {
+            long epoch = source.readLong();
+            long sequence = source.readLong();
+            boolean resyncRequired = source.readBoolean();
+            int namespaceCount = source.readInt();
+            Map<String, Map<String, String>> changes = new HashMap<>(namespaceCount);
+            for (int i = 0; i < namespaceCount; i++) {
+                String namespace = source.readString();
+                int flagCount = source.readInt();
+                Map<String, String> flags = new HashMap<>(flagCount);
+                for (int j = 0; j < flagCount; j++) {
+                    flags.put(source.readString(), source.readString());
+                }
+                changes.put(namespace, flags);
+            }
+            return new DeviceConfigDelta(epoch, sequence, resyncRequired, changes);
+        }
+
+        @Override
+        public DeviceConfigDelta[] newArray(int size) {
+            return new DeviceConfigDelta[size];
+        }
+    };
+}
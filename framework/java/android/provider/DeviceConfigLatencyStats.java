@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.provider;
+
+import android.annotation.IntDef;
+import android.annotation.NonNull;
+
+import java.io.PrintWriter;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latency of DeviceConfig calls, per API and per namespace.
+ * <p>
+ * Namespaces are keyed by their {@link NamespaceRegistry} id; calls for namespaces that are not
+ * declared in {@link DeviceConfig} are counted together, so memory stays bounded whatever callers
+ * pass in. Per namespace histograms are only allocated once the namespace is used.
+ *
+ * @hide
+ */
+public final class DeviceConfigLatencyStats {
+    public static final int API_GET_PROPERTIES = 0;
+    public static final int API_SET_PROPERTY = 1;
+    public static final int API_SET_PROPERTIES = 2;
+    public static final int API_DELETE_PROPERTY = 3;
+    public static final int API_HANDLE_CHANGE = 4;
+    /** From the call until the batch holding the write is committed. */
+    public static final int API_SET_PROPERTIES_ASYNC = 5;
+    private static final int API_COUNT = 6;
+
+    private static final String[] API_NAMES = {
+            "getProperties", "setProperty", "setProperties", "deleteProperty", "handleChange",
+            "setPropertiesAsync"
+    };
+
+    /** @hide */
+    @IntDef(prefix = "API_", value = { API_GET_PROPERTIES, API_SET_PROPERTY, API_SET_PROPERTIES,
+            API_DELETE_PROPERTY, API_HANDLE_CHANGE, API_SET_PROPERTIES_ASYNC })
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Api {}
+
+    private static final String OTHER_NAMESPACES = "<other>";
+
+    private static final DeviceConfigLatencyStats sClientStats =
+            new DeviceConfigLatencyStats("DeviceConfig");
+
+    private final String mName;
+    private final LatencyHistogram[] mApis = new LatencyHistogram[API_COUNT];
+    // one slot per registered namespace, and a last one for all other namespaces
+    private final AtomicReferenceArray<LatencyHistogram> mNamespaces =
+            new AtomicReferenceArray<>(NamespaceRegistry.size() + 1);
+
+    public DeviceConfigLatencyStats(@NonNull String name) {
+        mName = name;
+        for (int i = 0; i < API_COUNT; i++) {
+            mApis[i] = new LatencyHistogram();
+        }
+    }
+
+    /** Returns the stats of the {@link DeviceConfig} calls made by this process. */
+    @NonNull
+    public static DeviceConfigLatencyStats getClientStats() {
+        return sClientStats;
+    }
+
+    /** Records a call to {@code api} for {@code namespace} that started at {@code startNanos}. */
+    public void record(@Api int api, @NonNull String namespace, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        mApis[api].record(nanos);
+        int slot = NamespaceRegistry.getId(namespace);
+        if (slot == NamespaceRegistry.UNKNOWN_ID) {
+            slot = NamespaceRegistry.size();
+        }
+        LatencyHistogram histogram = mNamespaces.get(slot);
+        if (histogram == null) {
+            mNamespaces.compareAndSet(slot, null, new LatencyHistogram());
+            histogram = mNamespaces.get(slot);
+        }
+        histogram.record(nanos);
+    }
+
+    /** Prints one line per API and per namespace that has been called. */
+    public void dump(@NonNull PrintWriter pw) {
+        pw.println(mName + " latency by API:");
+        for (int i = 0; i < API_COUNT; i++) {
+            mApis[i].dump(pw, "  " + API_NAMES[i]);
+        }
+        pw.println(mName + " latency by namespace:");
+        for (int slot = 0; slot < mNamespaces.length(); slot++) {
+            LatencyHistogram histogram = mNamespaces.get(slot);
+            if (histogram != null) {
+                String namespace = slot == NamespaceRegistry.size()
+                        ? OTHER_NAMESPACES : NamespaceRegistry.getNamespace(slot);
+                histogram.dump(pw, "  " + namespace);
+            }
+        }
+    }
+}
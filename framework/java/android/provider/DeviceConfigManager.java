@@ -20,11 +20,18 @@ import android.annotation.NonNull;
 import android.annotation.Nullable;
 
 import android.annotation.SystemService;
+import android.os.Binder;
+import android.os.ParcelFileDescriptor;
 import android.os.RemoteException;
+import android.os.SharedMemory;
 import android.provider.aidl.IDeviceConfigManager;
+import android.provider.aidl.IDeviceConfigWriteCallback;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * @hide
@@ -32,7 +39,8 @@ import java.util.Map;
 @SystemService(DeviceConfig.SERVICE_NAME)
 public class DeviceConfigManager {
 
-    private IDeviceConfigManager mService;
+    // final, so that a manager published without synchronization is seen fully constructed
+    private final IDeviceConfigManager mService;
 
     public DeviceConfigManager(@NonNull IDeviceConfigManager service) {
         mService = service;
@@ -42,8 +50,7 @@ public class DeviceConfigManager {
     public DeviceConfig.Properties getProperties(@NonNull String namespace,
             @NonNull String... names) {
         try {
-            Map<String, String> map = mService.getProperties(namespace, names);
-            return new DeviceConfig.Properties(namespace, map);
+            return mService.getProperties(namespace, names).getProperties();
         } catch (RemoteException e) {
             throw e.rethrowFromSystemServer();
         }
@@ -57,6 +64,38 @@ public class DeviceConfigManager {
         }
     }
 
+    /**
+     * Queues {@code values} to be written with other pending writes, without waiting for them to
+     * be committed. Queued writes are applied in order, but not ordered with the other writes.
+     * If too many writes are already pending, the values are dropped and the write fails.
+     *
+     * @param onComplete told on {@code executor} whether the values were written, or
+     *                   {@code null} if the caller does not need to know
+     */
+    public void setPropertiesAsync(@NonNull String namespace, @NonNull Map<String, String> values,
+            @Nullable Executor executor, @Nullable Consumer<Boolean> onComplete) {
+        IDeviceConfigWriteCallback callback = null;
+        if (onComplete != null) {
+            Objects.requireNonNull(executor);
+            callback = new IDeviceConfigWriteCallback.Stub() {
+                @Override
+                public void onWriteCompleted(boolean success) {
+                    final long token = Binder.clearCallingIdentity();
+                    try {
+                        executor.execute(() -> onComplete.accept(success));
+                    } finally {
+                        Binder.restoreCallingIdentity(token);
+                    }
+                }
+            };
+        }
+        try {
+            mService.setPropertiesAsync(namespace, values, callback);
+        } catch (RemoteException e) {
+            throw e.rethrowFromSystemServer();
+        }
+    }
+
     public boolean setProperty(@NonNull String namespace, @NonNull String name,
             @Nullable String value, boolean makeDefault) {
         try {
@@ -73,4 +112,60 @@ public class DeviceConfigManager {
             throw e.rethrowFromSystemServer();
         }
     }
+
+    /**
+     * Applies a snapshot written by {@code cmd device_config_updatable dump --format=proto}, in
+     * one transaction.
+     *
+     * @param snapshot the snapshot to read; closed by the service
+     * @param replace whether to delete the values that are not in the snapshot
+     * @return whether the snapshot was applied
+     */
+    public boolean importSnapshot(@NonNull ParcelFileDescriptor snapshot, boolean replace) {
+        try {
+            return mService.importSnapshot(snapshot, replace);
+        } catch (RemoteException e) {
+            throw e.rethrowFromSystemServer();
+        }
+    }
+
+    /**
+     * Returns the latest value of each flag changed after the given point of the service's change
+     * journal. Pass the epoch and sequence of the previous delta, or 0 for both to learn the
+     * current point.
+     */
+    @NonNull
+    public DeviceConfigDelta getChangesSince(long epoch, long sequence) {
+        try {
+            return mService.getChangesSince(epoch, sequence);
+        } catch (RemoteException e) {
+            throw e.rethrowFromSystemServer();
+        }
+    }
+
+    /**
+     * Returns the read-only table of namespace generations, or {@code null} if namespaces are not
+     * shared in memory.
+     */
+    @Nullable
+    public SharedMemory getGenerationTable() {
+        try {
+            return mService.getGenerationTable();
+        } catch (RemoteException e) {
+            throw e.rethrowFromSystemServer();
+        }
+    }
+
+    /**
+     * Returns the values of {@code namespace} in a read-only {@link SharedConfigPage}, or
+     * {@code null} if the namespace is not shared in memory.
+     */
+    @Nullable
+    public SharedMemory getNamespacePage(@NonNull String namespace) {
+        try {
+            return mService.getNamespacePage(namespace);
+        } catch (RemoteException e) {
+            throw e.rethrowFromSystemServer();
+        }
+    }
 }
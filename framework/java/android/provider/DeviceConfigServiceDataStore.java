@@ -50,8 +50,11 @@ public class DeviceConfigServiceDataStore /*implements DeviceConfigDataStore*/ {
     }
 
     private @Nullable DeviceConfigManager createManagerIfNeeded() {
-        if (mManager != null) {
-            return mManager;
+        // read once: the field is published without synchronization, and a second read could
+        // still see null
+        DeviceConfigManager current = mManager;
+        if (current != null) {
+            return current;
         }
         synchronized (mLock) {
             if (mManager != null) {
@@ -75,16 +78,16 @@ public class DeviceConfigServiceDataStore /*implements DeviceConfigDataStore*/ {
     @NonNull
     public DeviceConfig.Properties getProperties(@NonNull String namespace,
           @NonNull String... names) {
-       createManagerIfNeeded();
+       DeviceConfigManager manager = createManagerIfNeeded();
 
-       if (mManager == null) {
+       if (manager == null) {
            if(DEBUG) {
                Slog.d(TAG, "ServiceDS - getProperties before ready " + namespace + " "
                        + Arrays.toString(names));
            }
           return new DeviceConfig.Properties(namespace, new HashMap<>());
        }
-        return mManager.getProperties(namespace, names);
+        return manager.getProperties(namespace, names);
     }
 
 //    @Override
@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.provider;
+
+import android.annotation.IntDef;
+import android.annotation.NonNull;
+import android.annotation.Nullable;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+
+/**
+ * Maps the namespaces declared in {@link DeviceConfig} to dense int ids, and records a small set
+ * of attributes for each of them.
+ * <p>
+ * The table is computed once per process, when the class is initialized. Ids are assigned in
+ * sorted namespace order, so they are stable for a given build but must not be persisted or sent
+ * to a process that may be running a different version of this module.
+ *
+ * @hide
+ */
+public final class NamespaceRegistry {
+
+    /** Returned by {@link #getId(String)} for namespaces that are not declared in DeviceConfig. */
+    public static final int UNKNOWN_ID = -1;
+
+    /** The namespace is returned by {@link DeviceConfig#getPublicNamespaces()}. */
+    public static final int ATTRIBUTE_PUBLIC = 1 << 0;
+
+    /** The namespace is only read at boot, so its values are stable until the next reboot. */
+    public static final int ATTRIBUTE_BOOT_STABLE = 1 << 1;
+
+    /** The namespace is read by native code through system properties. */
+    public static final int ATTRIBUTE_NATIVE = 1 << 2;
+
+    /** @hide */
+    @IntDef(flag = true, prefix = "ATTRIBUTE_",
+            value = { ATTRIBUTE_PUBLIC, ATTRIBUTE_BOOT_STABLE, ATTRIBUTE_NATIVE })
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Attribute {}
+
+    private static final String[] NAMESPACES = {
+            DeviceConfig.NAMESPACE_ACCESSIBILITY,
+            DeviceConfig.NAMESPACE_ACTIVITY_MANAGER,
+            DeviceConfig.NAMESPACE_ACTIVITY_MANAGER_COMPONENT_ALIAS,
+            DeviceConfig.NAMESPACE_AUTO_PIN_CONFIRMATION,
+            DeviceConfig.NAMESPACE_ACTIVITY_MANAGER_NATIVE_BOOT,
+            DeviceConfig.NAMESPACE_ALARM_MANAGER,
+            DeviceConfig.NAMESPACE_APP_COMPAT,
+            DeviceConfig.NAMESPACE_APP_HIBERNATION,
+            DeviceConfig.NAMESPACE_APPSEARCH,
+            DeviceConfig.NAMESPACE_APP_STANDBY,
+            DeviceConfig.NAMESPACE_APP_CLONING,
+            DeviceConfig.NAMESPACE_ATTENTION_MANAGER_SERVICE,
+            DeviceConfig.NAMESPACE_AUTOFILL,
+            DeviceConfig.NAMESPACE_BATTERY_SAVER,
+            DeviceConfig.NAMESPACE_BATTERY_STATS,
+            DeviceConfig.NAMESPACE_BLOBSTORE,
+            DeviceConfig.NAMESPACE_BLUETOOTH,
+            DeviceConfig.NAMESPACE_CORE_EXPERIMENTS_TEAM_INTERNAL,
+            DeviceConfig.NAMESPACE_CAMERA_NATIVE,
+            DeviceConfig.NAMESPACE_CELLULAR_SECURITY,
+            DeviceConfig.NAMESPACE_CLIPBOARD,
+            DeviceConfig.NAMESPACE_CONNECTIVITY,
+            DeviceConfig.NAMESPACE_CAPTIVEPORTALLOGIN,
+            DeviceConfig.NAMESPACE_EDGETPU_NATIVE,
+            DeviceConfig.NAMESPACE_HEALTH_FITNESS,
+            DeviceConfig.NAMESPACE_TETHERING,
+            DeviceConfig.NAMESPACE_NEARBY,
+            DeviceConfig.NAMESPACE_CONTENT_CAPTURE,
+            DeviceConfig.NAMESPACE_CREDENTIAL,
+            DeviceConfig.NAMESPACE_DEVICE_IDLE,
+            DeviceConfig.NAMESPACE_DEX_BOOT,
+            DeviceConfig.NAMESPACE_DISPLAY_MANAGER,
+            DeviceConfig.NAMESPACE_GAME_DRIVER,
+            DeviceConfig.NAMESPACE_HDMI_CONTROL,
+            DeviceConfig.NAMESPACE_INPUT_NATIVE_BOOT,
+            DeviceConfig.NAMESPACE_INTELLIGENCE_ATTENTION,
+            DeviceConfig.NAMESPACE_INTELLIGENCE_CONTENT_SUGGESTIONS,
+            DeviceConfig.NAMESPACE_JOB_SCHEDULER,
+            DeviceConfig.NAMESPACE_LMKD_NATIVE,
+            DeviceConfig.NAMESPACE_LOCATION,
+            DeviceConfig.NAMESPACE_MEDIA,
+            DeviceConfig.NAMESPACE_MEDIA_NATIVE,
+            DeviceConfig.NAMESPACE_MGLRU_NATIVE,
+            DeviceConfig.NAMESPACE_NETD_NATIVE,
+            DeviceConfig.NAMESPACE_NNAPI_NATIVE,
+            DeviceConfig.NAMESPACE_ON_DEVICE_PERSONALIZATION,
+            DeviceConfig.NAMESPACE_PACKAGE_MANAGER_SERVICE,
+            DeviceConfig.NAMESPACE_PROFCOLLECT_NATIVE_BOOT,
+            DeviceConfig.NAMESPACE_REBOOT_READINESS,
+            DeviceConfig.NAMESPACE_REMOTE_KEY_PROVISIONING_NATIVE,
+            DeviceConfig.NAMESPACE_ROLLBACK,
+            DeviceConfig.NAMESPACE_ROLLBACK_BOOT,
+            DeviceConfig.NAMESPACE_ROTATION_RESOLVER,
+            DeviceConfig.NAMESPACE_RUNTIME,
+            DeviceConfig.NAMESPACE_RUNTIME_NATIVE,
+            DeviceConfig.NAMESPACE_RUNTIME_NATIVE_BOOT,
+            DeviceConfig.NAMESPACE_SCHEDULER,
+            DeviceConfig.NAMESPACE_SDK_SANDBOX,
+            DeviceConfig.NAMESPACE_SETTINGS_STATS,
+            DeviceConfig.NAMESPACE_STATSD_JAVA,
+            DeviceConfig.NAMESPACE_STATSD_JAVA_BOOT,
+            DeviceConfig.NAMESPACE_STATSD_NATIVE,
+            DeviceConfig.NAMESPACE_STATSD_NATIVE_BOOT,
+            DeviceConfig.NAMESPACE_STORAGE,
+            DeviceConfig.NAMESPACE_STORAGE_NATIVE_BOOT,
+            DeviceConfig.NAMESPACE_ADSERVICES,
+            DeviceConfig.NAMESPACE_SURFACE_FLINGER_NATIVE_BOOT,
+            DeviceConfig.NAMESPACE_SWCODEC_NATIVE,
+            DeviceConfig.NAMESPACE_SYSTEMUI,
+            DeviceConfig.NAMESPACE_SYSTEM_TIME,
+            DeviceConfig.NAMESPACE_TARE,
+            DeviceConfig.NAMESPACE_TELEPHONY,
+            DeviceConfig.NAMESPACE_TEXTCLASSIFIER,
+            DeviceConfig.NAMESPACE_CONTACTS_PROVIDER,
+            DeviceConfig.NAMESPACE_SETTINGS_UI,
+            DeviceConfig.NAMESPACE_ANDROID,
+            DeviceConfig.NAMESPACE_WINDOW_MANAGER,
+            DeviceConfig.NAMESPACE_WINDOW_MANAGER_NATIVE_BOOT,
+            DeviceConfig.NAMESPACE_SELECTION_TOOLBAR,
+            DeviceConfig.NAMESPACE_VOICE_INTERACTION,
+            DeviceConfig.NAMESPACE_DEVICE_POLICY_MANAGER,
+            DeviceConfig.NAMESPACE_PRIVACY,
+            DeviceConfig.NAMESPACE_BIOMETRICS,
+            DeviceConfig.NAMESPACE_PERMISSIONS,
+            DeviceConfig.NAMESPACE_OTA,
+            DeviceConfig.NAMESPACE_WIDGET,
+            DeviceConfig.NAMESPACE_CONNECTIVITY_THERMAL_POWER_MANAGER,
+            DeviceConfig.NAMESPACE_CONFIGURATION,
+            DeviceConfig.NAMESPACE_LATENCY_TRACKER,
+            DeviceConfig.NAMESPACE_INTERACTION_JANK_MONITOR,
+            DeviceConfig.NAMESPACE_GAME_OVERLAY,
+            DeviceConfig.NAMESPACE_VIRTUALIZATION_FRAMEWORK_NATIVE,
+            DeviceConfig.NAMESPACE_CONSTRAIN_DISPLAY_APIS,
+            DeviceConfig.NAMESPACE_APP_COMPAT_OVERRIDES,
+            DeviceConfig.NAMESPACE_UWB,
+            DeviceConfig.NAMESPACE_AMBIENT_CONTEXT_MANAGER_SERVICE,
+            DeviceConfig.NAMESPACE_WEARABLE_SENSING,
+            DeviceConfig.NAMESPACE_VENDOR_SYSTEM_NATIVE,
+            DeviceConfig.NAMESPACE_VENDOR_SYSTEM_NATIVE_BOOT,
+            DeviceConfig.NAMESPACE_MEMORY_SAFETY_NATIVE_BOOT,
+            DeviceConfig.NAMESPACE_MEMORY_SAFETY_NATIVE,
+            DeviceConfig.NAMESPACE_WEAR,
+            DeviceConfig.NAMESPACE_INPUT_METHOD_MANAGER,
+            DeviceConfig.NAMESPACE_BACKUP_AND_RESTORE,
+            DeviceConfig.NAMESPACE_ARC_APP_COMPAT,
+            DeviceConfig.NAMESPACE_REMOTE_AUTH,
+            DeviceConfig.NAMESPACE_TETHERING_NATIVE,
+            DeviceConfig.NAMESPACE_NFC
+    };
+
+    /**
+     * The namespaces returned by {@link DeviceConfig#getPublicNamespaces()}. Kept here, as
+     * compile-time constants, so initializing this class never initializes DeviceConfig, whose own
+     * initialization uses this class.
+     */
+    static final String[] PUBLIC_NAMESPACES = {
+            DeviceConfig.NAMESPACE_TEXTCLASSIFIER,
+            DeviceConfig.NAMESPACE_RUNTIME,
+            DeviceConfig.NAMESPACE_STATSD_JAVA,
+            DeviceConfig.NAMESPACE_STATSD_JAVA_BOOT,
+            DeviceConfig.NAMESPACE_SELECTION_TOOLBAR,
+            DeviceConfig.NAMESPACE_AUTOFILL,
+            DeviceConfig.NAMESPACE_DEVICE_POLICY_MANAGER,
+            DeviceConfig.NAMESPACE_CONTENT_CAPTURE
+    };
+
+    private static final int[] ATTRIBUTES;
+
+    static {
+        Arrays.sort(NAMESPACES);
+        ATTRIBUTES = new int[NAMESPACES.length];
+        for (int id = 0; id < NAMESPACES.length; id++) {
+            ATTRIBUTES[id] = computeAttributes(NAMESPACES[id]);
+        }
+    }
+
+    private NamespaceRegistry() {
+    }
+
+    private static int computeAttributes(String namespace) {
+        int attributes = 0;
+        if (Arrays.asList(PUBLIC_NAMESPACES).contains(namespace)) {
+            attributes |= ATTRIBUTE_PUBLIC;
+        }
+        if (namespace.endsWith("_boot")) {
+            attributes |= ATTRIBUTE_BOOT_STABLE;
+        }
+        if (namespace.endsWith("_native") || namespace.endsWith("_native_boot")) {
+            attributes |= ATTRIBUTE_NATIVE;
+        }
+        return attributes;
+    }
+
+    /**
+     * Returns the number of known namespaces. Ids are in the range {@code [0, size())}.
+     */
+    public static int size() {
+        return NAMESPACES.length;
+    }
+
+    /**
+     * Returns the id of {@code namespace}, or {@link #UNKNOWN_ID} if it is not declared in
+     * {@link DeviceConfig}.
+     */
+    public static int getId(@NonNull String namespace) {
+        int id = Arrays.binarySearch(NAMESPACES, namespace);
+        return id >= 0 ? id : UNKNOWN_ID;
+    }
+
+    /**
+     * Returns the namespace with the given id, or {@code null} if the id is out of range.
+     */
+    @Nullable
+    public static String getNamespace(int id) {
+        return id >= 0 && id < NAMESPACES.length ? NAMESPACES[id] : null;
+    }
+
+    /**
+     * Returns the {@link Attribute} bits of the namespace with the given id, or 0 if the id is
+     * out of range.
+     */
+    public static @Attribute int getAttributes(int id) {
+        return id >= 0 && id < ATTRIBUTES.length ? ATTRIBUTES[id] : 0;
+    }
+
+    /**
+     * Returns whether the namespace with the given id has all of the given {@link Attribute}
+     * bits.
+     */
+    public static boolean hasAttributes(int id, @Attribute int attributes) {
+        return (getAttributes(id) & attributes) == attributes;
+    }
+
+    /**
+     * Returns whether {@code namespace} can be read without READ_DEVICE_CONFIG.
+     */
+    public static boolean isPublic(@NonNull String namespace) {
+        return hasAttributes(getId(namespace), ATTRIBUTE_PUBLIC);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.provider;
+
+import android.annotation.NonNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The table of namespace generations that the DeviceConfig service shares with clients, to tell
+ * them when a {@link SharedConfigPage} is out of date.
+ * <p>
+ * The table has one slot per namespace of {@link NamespaceRegistry}, indexed by its id. The
+ * service increments a slot after each change to the namespace; a client's page is current as
+ * long as its generation matches the slot. Layout, in native byte order:
+ * <pre>
+ *   int magic, int version, int slotCount, int reserved
+ *   slotCount longs
+ * </pre>
+ * Slots are written with release and read with acquire semantics, so a client that sees a new
+ * generation also sees the page written before it.
+ *
+ * @hide
+ */
+public final class SharedConfigGenerations {
+    private static final int MAGIC = 0x44435347; // "DCSG"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    private static final VarHandle SLOTS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer mBuffer;
+    private final int mSize;
+
+    private SharedConfigGenerations(ByteBuffer buffer, int size) {
+        mBuffer = buffer;
+        mSize = size;
+    }
+
+    /** Returns the size in bytes of a table with {@code slots} slots. */
+    public static int computeSize(int slots) {
+        return HEADER_SIZE + slots * Long.BYTES;
+    }
+
+    /**
+     * Writes the header of a new table, with every generation at 0. The buffer must be writable
+     * and 8-byte aligned, such as a mapping of shared memory.
+     */
+    @NonNull
+    public static SharedConfigGenerations create(@NonNull ByteBuffer buffer, int slots) {
+        ByteBuffer table = buffer.duplicate().order(ByteOrder.nativeOrder());
+        table.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, slots);
+        return new SharedConfigGenerations(table, slots);
+    }
+
+    /**
+     * Wraps a table written by {@link #create}.
+     *
+     * @throws IllegalArgumentException if the buffer does not hold a table of this version
+     */
+    @NonNull
+    public static SharedConfigGenerations wrap(@NonNull ByteBuffer buffer) {
+        ByteBuffer table = buffer.duplicate().order(ByteOrder.nativeOrder());
+        if (table.limit() < HEADER_SIZE || table.getInt(0) != MAGIC
+                || table.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a generation table");
+        }
+        int slots = table.getInt(8);
+        if (slots < 0 || computeSize(slots) > table.limit()) {
+            throw new IllegalArgumentException("Corrupt generation table");
+        }
+        return new SharedConfigGenerations(table, slots);
+    }
+
+    /** Returns the number of slots. */
+    public int size() {
+        return mSize;
+    }
+
+    /** Returns the generation of the namespace with the given id. */
+    public long get(int slot) {
+        return (long) SLOTS.getAcquire(mBuffer, offsetOf(slot));
+    }
+
+    /**
+     * Increments the generation of the namespace with the given id, and returns the new value.
+     * Only the service calls this, with its own lock held.
+     */
+    public long increment(int slot) {
+        long generation = get(slot) + 1;
+        SLOTS.setRelease(mBuffer, offsetOf(slot), generation);
+        return generation;
+    }
+
+    private int offsetOf(int slot) {
+        if (slot < 0 || slot >= mSize) {
+            throw new IndexOutOfBoundsException("slot " + slot + " of " + mSize);
+        }
+        return HEADER_SIZE + slot * Long.BYTES;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.provider;
+
+import android.annotation.NonNull;
+import android.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The values of one namespace, in the immutable binary layout the DeviceConfig service shares
+ * with clients through read-only shared memory.
+ * <p>
+ * Layout, in native byte order:
+ * <pre>
+ *   int magic, int version, long generation, int count, int reserved
+ *   count entries of: int keyOffset, int keyLength, int valueOffset, int valueLength
+ *   UTF-8 key and value bytes
+ * </pre>
+ * Entries are sorted by the unsigned bytes of their key, so a key is found by binary search
+ * without decoding the other keys. A null value has a length of -1. Offsets are from the start
+ * of the page. Pages are written with {@link Encoder}.
+ *
+ * @hide
+ */
+public final class SharedConfigPage {
+    private static final int MAGIC = 0x44435350; // "DCSP"
+    private static final int VERSION = 1;
+
+    private static final int GENERATION_OFFSET = 8;
+    private static final int COUNT_OFFSET = 16;
+    private static final int HEADER_SIZE = 24;
+    private static final int ENTRY_SIZE = 16;
+
+    private final ByteBuffer mBuffer;
+    private final int mCount;
+
+    private SharedConfigPage(ByteBuffer buffer, int count) {
+        mBuffer = buffer;
+        mCount = count;
+    }
+
+    /**
+     * Wraps a page written by {@link Encoder}.
+     *
+     * @throws IllegalArgumentException if the buffer does not hold a page of this version
+     */
+    @NonNull
+    public static SharedConfigPage wrap(@NonNull ByteBuffer buffer) {
+        ByteBuffer page = buffer.duplicate().order(ByteOrder.nativeOrder());
+        if (page.limit() < HEADER_SIZE || page.getInt(0) != MAGIC || page.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a config page");
+        }
+        int count = page.getInt(COUNT_OFFSET);
+        if (count < 0 || count > (page.limit() - HEADER_SIZE) / ENTRY_SIZE) {
+            throw new IllegalArgumentException("Corrupt config page");
+        }
+        return new SharedConfigPage(page, count);
+    }
+
+    /** Returns the generation of the namespace the page was made from. */
+    public long getGeneration() {
+        return mBuffer.getLong(GENERATION_OFFSET);
+    }
+
+    /** Returns the number of values in the page. */
+    public int size() {
+        return mCount;
+    }
+
+    /** Returns whether the page has a value for {@code key}, which may be null. */
+    public boolean contains(@NonNull String key) {
+        return find(key.getBytes(StandardCharsets.UTF_8)) >= 0;
+    }
+
+    /** Returns the value of {@code key}, or {@code null} if it is not set or set to null. */
+    @Nullable
+    public String get(@NonNull String key) {
+        int entry = find(key.getBytes(StandardCharsets.UTF_8));
+        return entry < 0 ? null : readValue(entry);
+    }
+
+    /** Decodes every value of the page. */
+    @NonNull
+    public Map<String, String> getAll() {
+        Map<String, String> values = new HashMap<>(mCount * 4 / 3 + 1);
+        for (int i = 0; i < mCount; i++) {
+            int entry = HEADER_SIZE + i * ENTRY_SIZE;
+            values.put(readString(mBuffer.getInt(entry), mBuffer.getInt(entry + 4)),
+                    readValue(entry));
+        }
+        return values;
+    }
+
+    private int find(byte[] key) {
+        int low = 0;
+        int high = mCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = HEADER_SIZE + mid * ENTRY_SIZE;
+            int cmp = compareKey(mBuffer.getInt(entry), mBuffer.getInt(entry + 4), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private int compareKey(int offset, int length, byte[] key) {
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(mBuffer.get(offset + i) & 0xff, key[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private String readValue(int entry) {
+        int length = mBuffer.getInt(entry + 12);
+        return length < 0 ? null : readString(mBuffer.getInt(entry + 8), length);
+    }
+
+    private String readString(int offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer source = mBuffer.duplicate();
+        source.position(offset);
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Encodes the values of a namespace, to write them as a page. */
+    public static final class Encoder {
+        private final byte[][] mKeys;
+        private final byte[][] mValues;
+        private final int mSize;
+
+        public Encoder(@NonNull Map<String, String> values) {
+            byte[][][] entries = new byte[values.size()][][];
+            int i = 0;
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                String value = entry.getValue();
+                entries[i++] = new byte[][] {
+                        entry.getKey().getBytes(StandardCharsets.UTF_8),
+                        value == null ? null : value.getBytes(StandardCharsets.UTF_8)};
+            }
+            Arrays.sort(entries, (a, b) -> Arrays.compareUnsigned(a[0], b[0]));
+            mKeys = new byte[entries.length][];
+            mValues = new byte[entries.length][];
+            int size = HEADER_SIZE + entries.length * ENTRY_SIZE;
+            for (i = 0; i < entries.length; i++) {
+                mKeys[i] = entries[i][0];
+                mValues[i] = entries[i][1];
+                size += mKeys[i].length + (mValues[i] == null ? 0 : mValues[i].length);
+            }
+            mSize = size;
+        }
+
+        /** Returns the size of the page, in bytes. */
+        public int getSize() {
+            return mSize;
+        }
+
+        /** Writes the page from the position of {@code out}, which must leave enough room. */
+        public void writeTo(@NonNull ByteBuffer out, long generation) {
+            ByteBuffer page = out.slice().order(ByteOrder.nativeOrder());
+            page.putInt(MAGIC).putInt(VERSION).putLong(generation)
+                    .putInt(mKeys.length).putInt(0);
+            int data = HEADER_SIZE + mKeys.length * ENTRY_SIZE;
+            for (int i = 0; i < mKeys.length; i++) {
+                page.putInt(data).putInt(mKeys[i].length);
+                data += mKeys[i].length;
+                page.putInt(data).putInt(mValues[i] == null ? -1 : mValues[i].length);
+                if (mValues[i] != null) {
+                    data += mValues[i].length;
+                }
+            }
+            for (int i = 0; i < mKeys.length; i++) {
+                page.put(mKeys[i]);
+                if (mValues[i] != null) {
+                    page.put(mValues[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+#!/usr/bin/env python3
+#
+# Copyright (C) 2024 The Android Open Source Project
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#      http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+
+"""Generates the packed allowlist of adb writable DeviceConfig flags.
+
+Reads writable_flags.txt and writes either the binary table that is packaged
+as a java resource of framework-configinfrastructure, or the Java class that
+describes it. Both outputs are generated from the same validated input so the
+accessor can check that it is reading the table it was built with.
+
+Binary layout, big-endian, strings as written by DataOutput#writeUTF:
+
+    int    magic ("WFL1")
+    int    format version
+    int    namespace count
+    int    flag count
+    then for each namespace, sorted:
+      utf  namespace
+      int  number of flags in the namespace
+      utf  flag name, repeated, sorted
+"""
+
+import argparse
+import re
+import struct
+import sys
+import zlib
+
+MAGIC = 0x57464C31
+FORMAT_VERSION = 1
+
+FLAG_PATTERN = re.compile(r'^[A-Za-z0-9_.\-]+/[A-Za-z0-9_.:*\-]+$')
+
+JAVA_TEMPLATE = """\
+// Generated by gen_writable_flags.py from writable_flags.txt. DO NOT EDIT.
+
+package android.provider;
+
+/**
+ * Describes the packed allowlist read by {{@link WritableFlags}}.
+ *
+ * @hide
+ */
+final class WritableFlagsTable {{
+    static final String RESOURCE_NAME = "writable_flags.bin";
+    static final int MAGIC = 0x{magic:08X};
+    static final int FORMAT_VERSION = {version};
+    static final int NAMESPACE_COUNT = {namespace_count};
+    static final int FLAG_COUNT = {flag_count};
+    static final int CRC32 = 0x{crc:08X};
+
+    private WritableFlagsTable() {{
+    }}
+}}
+"""
+
+
+def parse(path):
+    """Returns a dict of namespace -> sorted flag names, or exits on errors."""
+    errors = []
+    seen = {}
+    by_namespace = {}
+    with open(path, encoding='ascii') as f:
+        for line_number, line in enumerate(f, start=1):
+            entry = line.strip()
+            if not entry or entry.startswith('#'):
+                continue
+            if not FLAG_PATTERN.match(entry):
+                errors.append('%s:%d: malformed entry "%s", expected <namespace>/<flag>'
+                              % (path, line_number, entry))
+                continue
+            if entry in seen:
+                errors.append('%s:%d: duplicate entry "%s", first defined on line %d'
+                              % (path, line_number, entry, seen[entry]))
+                continue
+            seen[entry] = line_number
+            namespace, name = entry.split('/', 1)
+            by_namespace.setdefault(namespace, []).append(name)
+
+    if errors:
+        for error in errors:
+            print(error, file=sys.stderr)
+        sys.exit(1)
+
+    for names in by_namespace.values():
+        names.sort()
+    return by_namespace
+
+
+def write_utf(out, value):
+    encoded = value.encode('ascii')
+    out += struct.pack('>H', len(encoded))
+    out += encoded
+
+
+def pack(by_namespace):
+    out = bytearray()
+    flag_count = sum(len(names) for names in by_namespace.values())
+    out += struct.pack('>iiii', MAGIC, FORMAT_VERSION, len(by_namespace), flag_count)
+    for namespace in sorted(by_namespace):
+        names = by_namespace[namespace]
+        write_utf(out, namespace)
+        out += struct.pack('>i', len(names))
+        for name in names:
+            write_utf(out, name)
+    return bytes(out)
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    parser.add_argument('--mode', choices=['bin', 'java'], required=True)
+    parser.add_argument('--input', required=True)
+    parser.add_argument('--output', required=True)
+    args = parser.parse_args()
+
+    by_namespace = parse(args.input)
+    packed = pack(by_namespace)
+
+    if args.mode == 'bin':
+        with open(args.output, 'wb') as f:
+            f.write(packed)
+    else:
+        with open(args.output, 'w') as f:
+            f.write(JAVA_TEMPLATE.format(
+                magic=MAGIC,
+                version=FORMAT_VERSION,
+                namespace_count=len(by_namespace),
+                flag_count=sum(len(names) for names in by_namespace.values()),
+                crc=zlib.crc32(packed) & 0xFFFFFFFF))
+
+
+if __name__ == '__main__':
+    main()
@@ -0,0 +1,170 @@
+#!/usr/bin/env python3
+#
+# Copyright (C) 2024 The Android Open Source Project
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#      http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+
+"""Tests for gen_writable_flags.py."""
+
+import contextlib
+import io
+import os
+import re
+import struct
+import sys
+import tempfile
+import unittest
+from unittest import mock
+import zlib
+
+import gen_writable_flags
+
+
+class Reader:
+    """Reads the packed table the way WritableFlags does, with a DataInputStream."""
+
+    def __init__(self, data):
+        self.data = data
+        self.position = 0
+
+    def read_int(self):
+        (value,) = struct.unpack_from('>i', self.data, self.position)
+        self.position += 4
+        return value
+
+    def read_utf(self):
+        (length,) = struct.unpack_from('>H', self.data, self.position)
+        self.position += 2
+        value = self.data[self.position:self.position + length].decode('ascii')
+        self.position += length
+        return value
+
+
+class GenWritableFlagsTest(unittest.TestCase):
+
+    def setUp(self):
+        self.directory = tempfile.TemporaryDirectory()
+
+    def tearDown(self):
+        self.directory.cleanup()
+
+    def write_input(self, content):
+        path = os.path.join(self.directory.name, 'writable_flags.txt')
+        with open(path, 'w', encoding='ascii') as f:
+            f.write(content)
+        return path
+
+    def generate(self, mode, content):
+        """Runs the script on content and returns the generated output."""
+        output = os.path.join(self.directory.name, 'out.' + mode)
+        argv = ['gen_writable_flags.py', '--mode', mode,
+                '--input', self.write_input(content), '--output', output]
+        with mock.patch.object(sys, 'argv', argv):
+            gen_writable_flags.main()
+        with open(output, 'rb') as f:
+            return f.read()
+
+    def assert_rejected(self, content, message):
+        stderr = io.StringIO()
+        with contextlib.redirect_stderr(stderr), self.assertRaises(SystemExit) as e:
+            gen_writable_flags.parse(self.write_input(content))
+        self.assertEqual(1, e.exception.code)
+        self.assertIn(message, stderr.getvalue())
+
+    def test_parse_groups_and_sorts(self):
+        by_namespace = gen_writable_flags.parse(self.write_input(
+            '# a comment\n'
+            '\n'
+            'b/zeta\n'
+            '  a/one  \n'
+            'b/alpha\n'
+            'a/all:*\n'))
+
+        self.assertEqual({'a': ['all:*', 'one'], 'b': ['alpha', 'zeta']}, by_namespace)
+
+    def test_duplicate_entry_is_rejected(self):
+        self.assert_rejected(
+            'a/one\n'
+            'a/two\n'
+            'a/one\n',
+            ':3: duplicate entry "a/one", first defined on line 1')
+
+    def test_same_name_in_other_namespace_is_not_a_duplicate(self):
+        by_namespace = gen_writable_flags.parse(self.write_input('a/one\nb/one\n'))
+
+        self.assertEqual({'a': ['one'], 'b': ['one']}, by_namespace)
+
+    def test_malformed_entry_is_rejected(self):
+        self.assert_rejected('a/one\nno_separator\n', ':2: malformed entry "no_separator"')
+        self.assert_rejected('a/one two\n', ':1: malformed entry')
+        self.assert_rejected('/one\n', ':1: malformed entry')
+
+    def test_every_error_is_reported(self):
+        stderr = io.StringIO()
+        with contextlib.redirect_stderr(stderr), self.assertRaises(SystemExit):
+            gen_writable_flags.parse(self.write_input('a/one\na/one\nbad\na/one\n'))
+
+        self.assertEqual(3, len(stderr.getvalue().splitlines()))
+
+    def test_header_layout(self):
+        reader = Reader(self.generate('bin', 'b/two\nb/one\na/one\n'))
+
+        self.assertEqual(0x57464C31, reader.read_int())
+        self.assertEqual(b'WFL1', reader.data[:4])
+        self.assertEqual(1, reader.read_int())
+        self.assertEqual(2, reader.read_int())
+        self.assertEqual(3, reader.read_int())
+        self.assertEqual('a', reader.read_utf())
+        self.assertEqual(1, reader.read_int())
+        self.assertEqual('one', reader.read_utf())
+        self.assertEqual('b', reader.read_utf())
+        self.assertEqual(2, reader.read_int())
+        self.assertEqual('one', reader.read_utf())
+        self.assertEqual('two', reader.read_utf())
+        self.assertEqual(len(reader.data), reader.position)
+
+    def test_empty_input(self):
+        reader = Reader(self.generate('bin', '# nothing\n'))
+
+        self.assertEqual(gen_writable_flags.MAGIC, reader.read_int())
+        self.assertEqual(gen_writable_flags.FORMAT_VERSION, reader.read_int())
+        self.assertEqual(0, reader.read_int())
+        self.assertEqual(0, reader.read_int())
+        self.assertEqual(len(reader.data), reader.position)
+
+    def test_java_describes_the_table(self):
+        content = 'b/two\nb/one\na/one\nc/x.y-z\n'
+        packed = self.generate('bin', content)
+        java = self.generate('java', content).decode('ascii')
+
+        constants = dict(re.findall(r'static final int (\w+) = (0x[0-9A-F]+|\d+);', java))
+        self.assertEqual('0x57464C31', constants['MAGIC'])
+        self.assertEqual('1', constants['FORMAT_VERSION'])
+        self.assertEqual('3', constants['NAMESPACE_COUNT'])
+        self.assertEqual('4', constants['FLAG_COUNT'])
+        self.assertEqual(zlib.crc32(packed), int(constants['CRC32'], 16))
+        self.assertIn('RESOURCE_NAME = "writable_flags.bin";', java)
+
+    def test_crc_changes_with_the_table(self):
+        first = self.generate('java', 'a/one\n')
+        second = self.generate('java', 'a/two\n')
+
+        self.assertNotEqual(first, second)
+
+    def test_output_does_not_depend_on_input_order(self):
+        self.assertEqual(self.generate('bin', 'b/one\na/two\na/one\n'),
+                         self.generate('bin', 'a/one\na/two\nb/one\n'))
+
+
+if __name__ == '__main__':
+    unittest.main()
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig.db;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Collects benchmark samples and writes them as JSON, one object per benchmark:
+ *
+ * <pre>
+ * {"name": "...", "params": "...", "samples": 20, "opsPerSample": 1,
+ *  "minNs": ..., "medianNs": ..., "p90Ns": ..., "maxNs": ..., "opsPerSecond": ...}
+ * </pre>
+ *
+ * Times are per op. The file is written to the path in the {@code deviceconfig.benchmark.output}
+ * system property, or to {@code device_config_db_benchmark.json} in the temp directory.
+ */
+final class BenchmarkResults {
+    private static final String OUTPUT_PROPERTY = "deviceconfig.benchmark.output";
+    private static final String DEFAULT_OUTPUT = "device_config_db_benchmark.json";
+
+    private final List<String> mResults = new ArrayList<>();
+
+    /** Something to measure; one call is one sample of {@code opsPerSample} ops. */
+    interface Body {
+        void run(int sample) throws Exception;
+    }
+
+    /**
+     * Runs {@code body} {@code warmup} times, then measures it {@code samples} times and records
+     * the result.
+     */
+    void measure(String name, String params, int warmup, int samples, int opsPerSample,
+            Body body) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            body.run(-1 - i);
+        }
+        long[] nanos = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            body.run(i);
+            nanos[i] = System.nanoTime() - start;
+        }
+        record(name, params, nanos, opsPerSample);
+    }
+
+    /** Records samples measured by the caller, each covering {@code opsPerSample} ops. */
+    void record(String name, String params, long[] sampleNanos, int opsPerSample) {
+        long[] perOp = new long[sampleNanos.length];
+        for (int i = 0; i < perOp.length; i++) {
+            perOp[i] = sampleNanos[i] / opsPerSample;
+        }
+        Arrays.sort(perOp);
+        long median = percentile(perOp, 50);
+        String json = String.format(Locale.ROOT,
+                "{\"name\": \"%s\", \"params\": \"%s\", \"samples\": %d, \"opsPerSample\": %d, "
+                        + "\"minNs\": %d, \"medianNs\": %d, \"p90Ns\": %d, \"maxNs\": %d, "
+                        + "\"opsPerSecond\": %.1f}",
+                name, params, perOp.length, opsPerSample, perOp[0], median,
+                percentile(perOp, 90), perOp[perOp.length - 1],
+                median == 0 ? 0.0 : 1e9 / median);
+        System.out.println("BENCHMARK " + json);
+        mResults.add(json);
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(sorted.length * percentile / 100.0) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /** Writes all results as a JSON array, and returns the file. */
+    File write() throws IOException {
+        File output = new File(System.getProperty(OUTPUT_PROPERTY,
+                new File(System.getProperty("java.io.tmpdir"), DEFAULT_OUTPUT).getPath()));
+        Files.write(output.toPath(),
+                ("[\n  " + String.join(",\n  ", mResults) + "\n]\n")
+                        .getBytes(StandardCharsets.UTF_8));
+        System.out.println("BENCHMARK results written to " + output);
+        return output;
+    }
+}
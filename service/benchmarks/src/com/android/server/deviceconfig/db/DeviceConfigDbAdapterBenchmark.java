@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig.db;
+
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.SQLiteMode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Host benchmarks of {@link DeviceConfigDbAdapter}, on a real SQLite database file.
+ *
+ * <p>Robolectric's native SQLite mode runs the same SQLite engine as the device, so changes to the
+ * schema, indices or queries can be compared here; absolute numbers differ from a device's. Each
+ * benchmark prints a {@code BENCHMARK} line, and all results are written as JSON by
+ * {@link BenchmarkResults}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class DeviceConfigDbAdapterBenchmark {
+    private static final String NAMESPACE = "benchmark";
+    private static final int NAMESPACE_SIZE = 1_000;
+    private static final int OTHER_NAMESPACES = 50;
+    private static final int SAMPLES = 30;
+    private static final int WARMUP = 5;
+
+    private static final BenchmarkResults sResults = new BenchmarkResults();
+
+    private Context mContext;
+    private DeviceConfigDbHelper mHelper;
+    private DeviceConfigDbAdapter mAdapter;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.getApplication();
+        mContext.deleteDatabase(DeviceConfigDbHelper.DATABASE_NAME);
+        open();
+        // other namespaces, so that reads have to select their rows from a realistic table
+        for (int n = 0; n < OTHER_NAMESPACES; n++) {
+            mAdapter.setValues("namespace_" + n, values("key_", 100, "value"));
+        }
+        mAdapter.setValues(NAMESPACE, values("key_", NAMESPACE_SIZE, "value"));
+    }
+
+    @After
+    public void tearDown() {
+        mHelper.close();
+        mContext.deleteDatabase(DeviceConfigDbHelper.DATABASE_NAME);
+    }
+
+    @AfterClass
+    public static void writeResults() throws Exception {
+        sResults.write();
+    }
+
+    private void open() {
+        mHelper = new DeviceConfigDbHelper(mContext);
+        mAdapter = new DeviceConfigDbAdapter(mHelper.getWritableDatabase());
+    }
+
+    private static Map<String, String> values(String keyPrefix, int count, String value) {
+        Map<String, String> values = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            values.put(keyPrefix + i, value + i);
+        }
+        return values;
+    }
+
+    /** Reads a whole namespace on a freshly opened database, as on the first read after boot. */
+    @Test
+    public void namespaceRead_cold() throws Exception {
+        long[] nanos = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            mHelper.close();
+            open();
+            long start = System.nanoTime();
+            Map<String, String> values = mAdapter.getValuesForNamespace(NAMESPACE);
+            nanos[i] = System.nanoTime() - start;
+            assertEquals(NAMESPACE_SIZE, values.size());
+        }
+        sResults.record("namespaceRead_cold", "keys=" + NAMESPACE_SIZE, nanos, 1);
+    }
+
+    @Test
+    public void namespaceRead_warm() throws Exception {
+        sResults.measure("namespaceRead_warm", "keys=" + NAMESPACE_SIZE, WARMUP, SAMPLES, 1,
+                sample -> mAdapter.getValuesForNamespace(NAMESPACE));
+    }
+
+    @Test
+    public void pointLookup() throws Exception {
+        int lookups = 100;
+        sResults.measure("pointLookup", "keys=" + NAMESPACE_SIZE, WARMUP, SAMPLES, lookups,
+                sample -> {
+                    for (int i = 0; i < lookups; i++) {
+                        String key = "key_" + (i * 7 % NAMESPACE_SIZE);
+                        mAdapter.getValuesForNamespace(NAMESPACE, key);
+                    }
+                });
+    }
+
+    @Test
+    public void setValues_10() throws Exception {
+        measureSetValues(10, SAMPLES);
+    }
+
+    @Test
+    public void setValues_1k() throws Exception {
+        measureSetValues(1_000, 10);
+    }
+
+    @Test
+    public void setValues_10k() throws Exception {
+        measureSetValues(10_000, 3);
+    }
+
+    /** Writes {@code keys} new values, then overwrites them, in a namespace of their own. */
+    private void measureSetValues(int keys, int samples) throws Exception {
+        Map<String, String> first = values("key_", keys, "first");
+        Map<String, String> second = values("key_", keys, "second");
+        sResults.measure("setValues_insert", "keys=" + keys, 1, samples, 1,
+                sample -> mAdapter.setValues("bulk_insert_" + keys + "_" + sample, first));
+        sResults.measure("setValues_update", "keys=" + keys, 1, samples, 1,
+                sample -> mAdapter.setValues("bulk_update_" + keys,
+                        sample % 2 == 0 ? first : second));
+    }
+
+    /**
+     * Runs readers of whole namespaces and point lookups against one writer, and records the
+     * latency each sees.
+     */
+    @Test
+    public void mixedReadWrite() throws Exception {
+        int readers = 4;
+        long durationMillis = 3_000;
+        AtomicBoolean stop = new AtomicBoolean();
+        CountDownLatch done = new CountDownLatch(readers + 1);
+        List<long[]> readSamples = new ArrayList<>();
+        long[][] writeSamples = new long[1][];
+        List<Throwable> errors = new ArrayList<>();
+
+        for (int r = 0; r < readers; r++) {
+            int reader = r;
+            new Thread(() -> {
+                try {
+                    long[] samples = new long[1 << 16];
+                    int count = 0;
+                    while (!stop.get() && count < samples.length) {
+                        long start = System.nanoTime();
+                        if (reader % 2 == 0) {
+                            mAdapter.getValuesForNamespace(NAMESPACE);
+                        } else {
+                            mAdapter.getValuesForNamespace(NAMESPACE, "key_" + count % 100);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                    }
+                    synchronized (readSamples) {
+                        readSamples.add(Arrays.copyOf(samples, count));
+                    }
+                } catch (Throwable t) {
+                    synchronized (errors) {
+                        errors.add(t);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "reader-" + r).start();
+        }
+        new Thread(() -> {
+            try {
+                long[] samples = new long[1 << 16];
+                int count = 0;
+                while (!stop.get() && count < samples.length) {
+                    long start = System.nanoTime();
+                    mAdapter.setValues(NAMESPACE, values("key_", 10, "mixed" + count));
+                    samples[count++] = System.nanoTime() - start;
+                }
+                writeSamples[0] = Arrays.copyOf(samples, count);
+            } catch (Throwable t) {
+                synchronized (errors) {
+                    errors.add(t);
+                }
+            } finally {
+                done.countDown();
+            }
+        }, "writer").start();
+
+        Thread.sleep(durationMillis);
+        stop.set(true);
+        done.await(1, TimeUnit.MINUTES);
+        if (!errors.isEmpty()) {
+            throw new AssertionError(errors.get(0));
+        }
+
+        String params = "readers=" + readers + ",writers=1,ms=" + durationMillis;
+        int readCount = 0;
+        for (long[] samples : readSamples) {
+            readCount += samples.length;
+        }
+        long[] reads = new long[readCount];
+        int offset = 0;
+        for (long[] samples : readSamples) {
+            System.arraycopy(samples, 0, reads, offset, samples.length);
+            offset += samples.length;
+        }
+        sResults.record("mixedReadWrite_read", params, reads, 1);
+        sResults.record("mixedReadWrite_write", params, writeSamples[0], 1);
+    }
+}
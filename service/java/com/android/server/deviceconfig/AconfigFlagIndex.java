@@ -0,0 +1,314 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import android.aconfig.Aconfig.parsed_flag;
+import android.aconfig.Aconfig.parsed_flags;
+import android.annotation.NonNull;
+import android.util.Slog;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sorted table of the aconfig flags declared on the device, used to tell whether a staged key
+ * refers to an aconfig flag.
+ *
+ * <p>Entries are stored as {@code <namespace>*<flag>}, the same form as the keys of the
+ * {@code staged} namespace, in a single buffer:
+ *
+ * <pre>
+ *   int    magic
+ *   int    format version
+ *   int    entry count (n)
+ *   int    offsets[n + 1], relative to the start of the entry data
+ *   byte   entry data, ASCII, sorted
+ * </pre>
+ *
+ * Lookups binary search the buffer in place, so the index costs one byte per character instead of
+ * a string and a hash set node per flag. Aconfig restricts namespaces and flag names to ASCII.
+ *
+ * @hide
+ */
+final class AconfigFlagIndex {
+    private static final String TAG = "AconfigFlagIndex";
+
+    static final String SYSTEM_FLAGS_PATH = "/system/etc/aconfig_flags.pb";
+    static final String SYSTEM_EXT_FLAGS_PATH = "/system_ext/etc/aconfig_flags.pb";
+    static final String VENDOR_FLAGS_PATH = "/vendor/etc/aconfig_flags.pb";
+    private static final List<String> PARTITION_FLAGS_PATHS =
+            List.of(SYSTEM_FLAGS_PATH, SYSTEM_EXT_FLAGS_PATH, VENDOR_FLAGS_PATH);
+
+    private static final String CACHE_FILE_NAME = "aconfig_flag_index";
+
+    static final int MAGIC = 0x41434649; // "ACFI"
+    static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+
+    private static final char SEPARATOR = '*';
+
+    private final ByteBuffer mBuffer;
+    private final int mSize;
+    private final int mDataStart;
+
+    private AconfigFlagIndex(@NonNull ByteBuffer buffer) {
+        if (buffer.limit() < HEADER_SIZE + Integer.BYTES
+                || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Not an aconfig flag index");
+        }
+        int size = buffer.getInt(8);
+        if (size < 0 || size > (buffer.limit() - HEADER_SIZE) / Integer.BYTES - 1) {
+            throw new IllegalArgumentException("Truncated aconfig flag index");
+        }
+        mBuffer = buffer;
+        mSize = size;
+        mDataStart = HEADER_SIZE + (mSize + 1) * Integer.BYTES;
+        if (mDataStart + buffer.getInt(HEADER_SIZE + mSize * Integer.BYTES) != buffer.limit()) {
+            throw new IllegalArgumentException("Truncated aconfig flag index");
+        }
+    }
+
+    /**
+     * Wraps an index previously returned by {@link #getBuffer()}, without copying it.
+     *
+     * @throws IllegalArgumentException if the buffer does not hold an index
+     */
+    @NonNull
+    static AconfigFlagIndex fromBuffer(@NonNull ByteBuffer buffer) {
+        return new AconfigFlagIndex(buffer.slice());
+    }
+
+    /** Returns a read-only view of the serialized index. */
+    @NonNull
+    ByteBuffer getBuffer() {
+        return mBuffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the index of the flags declared in the system, system_ext and vendor partitions,
+     * loading it on first use. The index is kept in the apex data directory, and is only rebuilt
+     * from the partitions when they change.
+     */
+    @NonNull
+    static AconfigFlagIndex getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final AconfigFlagIndex INSTANCE = loadFromPartitions();
+    }
+
+    private static AconfigFlagIndex loadFromPartitions() {
+        AconfigFlagIndexCache cache = new AconfigFlagIndexCache(
+                ServiceDataFiles.getFile(CACHE_FILE_NAME), PARTITION_FLAGS_PATHS);
+        AconfigFlagIndex index = cache.read();
+        if (index == null) {
+            index = parsePartitions();
+            cache.write(index);
+        }
+        return index;
+    }
+
+    /**
+     * Parses the partitions' flag files concurrently. A file that is missing or cannot be parsed
+     * is logged and skipped, without affecting the others.
+     */
+    private static AconfigFlagIndex parsePartitions() {
+        int threads = Math.min(PARTITION_FLAGS_PATHS.size(),
+                Runtime.getRuntime().availableProcessors());
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                runnable -> new Thread(runnable, TAG + "-" + threadCount.incrementAndGet()));
+        try {
+            List<Future<List<String>>> results = new ArrayList<>(PARTITION_FLAGS_PATHS.size());
+            for (String path : PARTITION_FLAGS_PATHS) {
+                results.add(executor.submit(() -> readFlagsFromFile(path)));
+            }
+
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    keys.addAll(results.get(i).get());
+                } catch (ExecutionException e) {
+                    Slog.e(TAG, "error loading aconfig flags from " + PARTITION_FLAGS_PATHS.get(i),
+                            e.getCause());
+                }
+            }
+            return fromKeys(keys);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted loading aconfig flags", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Returns the flags declared in {@code fileName}, sorted. */
+    private static List<String> readFlagsFromFile(String fileName) throws IOException {
+        List<String> keys = new ArrayList<>();
+        try (InputStream in = new FileInputStream(fileName)) {
+            for (parsed_flag flag : parsed_flags.parseFrom(in).getParsedFlagList()) {
+                keys.add(flag.getNamespace() + SEPARATOR + flag.getName());
+            }
+        }
+        // sorting here spreads most of the work of fromKeys over the parsing threads, which is
+        // then left to merge the sorted runs
+        Collections.sort(keys);
+        return keys;
+    }
+
+    /**
+     * Builds an index from keys of the form {@code <namespace>*<flag>}. Duplicates are allowed.
+     */
+    @NonNull
+    static AconfigFlagIndex fromKeys(@NonNull Collection<String> keys) {
+        List<String> sorted = new ArrayList<>(keys);
+        Collections.sort(sorted);
+
+        List<byte[]> entries = new ArrayList<>(sorted.size());
+        int dataSize = 0;
+        String previous = null;
+        for (String key : sorted) {
+            if (key.equals(previous)) {
+                continue;
+            }
+            byte[] bytes = key.getBytes(StandardCharsets.US_ASCII);
+            entries.add(bytes);
+            dataSize += bytes.length;
+            previous = key;
+        }
+
+        int size = entries.size();
+        ByteBuffer buffer = ByteBuffer.allocate(
+                HEADER_SIZE + (size + 1) * Integer.BYTES + dataSize);
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(size);
+        int offset = 0;
+        for (byte[] entry : entries) {
+            buffer.putInt(offset);
+            offset += entry.length;
+        }
+        buffer.putInt(offset);
+        for (byte[] entry : entries) {
+            buffer.put(entry);
+        }
+        buffer.flip();
+        return new AconfigFlagIndex(buffer);
+    }
+
+    /** Returns the number of distinct flags in the index. */
+    int size() {
+        return mSize;
+    }
+
+    /** Returns whether the flag {@code namespace/flag} is an aconfig flag. */
+    boolean contains(@NonNull String namespace, @NonNull String flag) {
+        int low = 0;
+        int high = mSize - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(mid, namespace, flag);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the region {@code [offset, offset + length)} of {@code key}, in the form
+     * {@code <namespace>*<flag>}, is an aconfig flag. Nothing is allocated.
+     */
+    boolean contains(@NonNull CharSequence key, int offset, int length) {
+        int low = 0;
+        int high = mSize - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(mid, key, offset, offset + length);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int entryStart(int entry) {
+        return mDataStart + mBuffer.getInt(HEADER_SIZE + entry * Integer.BYTES);
+    }
+
+    /**
+     * Compares the entry with {@code namespace*flag}, without building that string.
+     */
+    private int compare(int entry, String namespace, String flag) {
+        int position = entryStart(entry);
+        int end = entryStart(entry + 1);
+        int namespaceLength = namespace.length();
+        int keyLength = namespaceLength + 1 + flag.length();
+        for (int i = 0; i < keyLength; i++) {
+            if (position == end) {
+                return -1;
+            }
+            char c;
+            if (i < namespaceLength) {
+                c = namespace.charAt(i);
+            } else if (i == namespaceLength) {
+                c = SEPARATOR;
+            } else {
+                c = flag.charAt(i - namespaceLength - 1);
+            }
+            int diff = (mBuffer.get(position++) & 0xff) - c;
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return position == end ? 0 : 1;
+    }
+
+    private int compare(int entry, CharSequence key, int start, int end) {
+        int position = entryStart(entry);
+        int entryEnd = entryStart(entry + 1);
+        for (int i = start; i < end; i++) {
+            if (position == entryEnd) {
+                return -1;
+            }
+            int diff = (mBuffer.get(position++) & 0xff) - key.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return position == entryEnd ? 0 : 1;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import android.annotation.NonNull;
+import android.annotation.Nullable;
+import android.util.AtomicFile;
+import android.util.Slog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Keeps an {@link AconfigFlagIndex} in a file, so that the aconfig flags only have to be parsed
+ * again when the files they come from change.
+ *
+ * <p>The file starts with a key describing the source files (path, size, modification time and
+ * SHA-256 of each), followed by the index itself. The cached index is only used if the key
+ * matches the source files as they are now; the modification time alone is not enough, since
+ * partition images are usually built with fixed timestamps. A hit maps the file and uses the
+ * index in place.
+ *
+ * @hide
+ */
+final class AconfigFlagIndexCache {
+    private static final String TAG = "AconfigFlagIndexCache";
+
+    private static final int MAGIC = 0x41434643; // "ACFC"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+
+    private static final long MISSING_FILE = -1;
+
+    private final File mCacheFile;
+    private final List<String> mSourcePaths;
+    private byte[] mSourceKey;
+
+    /**
+     * @param cacheFile where the index is kept
+     * @param sourcePaths the files the index is built from; missing files are allowed
+     */
+    AconfigFlagIndexCache(@NonNull File cacheFile, @NonNull List<String> sourcePaths) {
+        mCacheFile = cacheFile;
+        mSourcePaths = sourcePaths;
+    }
+
+    /**
+     * Returns the cached index, or {@code null} if there is none or it was built from different
+     * source files.
+     */
+    @Nullable
+    AconfigFlagIndex read() {
+        try (FileInputStream in = new AtomicFile(mCacheFile).openRead()) {
+            FileChannel channel = in.getChannel();
+            ByteBuffer contents = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (contents.limit() < HEADER_SIZE
+                    || contents.getInt(0) != MAGIC || contents.getInt(4) != FORMAT_VERSION) {
+                Slog.i(TAG, "Ignoring aconfig flag index with an unknown format");
+                return null;
+            }
+            int keyLength = contents.getInt(8);
+            if (keyLength < 0 || keyLength > contents.limit() - HEADER_SIZE
+                    || !keyMatches(contents, HEADER_SIZE, keyLength)) {
+                Slog.i(TAG, "Aconfig flags changed, rebuilding index");
+                return null;
+            }
+            contents.position(HEADER_SIZE + keyLength);
+            return AconfigFlagIndex.fromBuffer(contents);
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            Slog.w(TAG, "Ignoring unreadable aconfig flag index", e);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the cached index. Failures are logged; the index is then rebuilt on the next boot.
+     */
+    void write(@NonNull AconfigFlagIndex index) {
+        AtomicFile file = new AtomicFile(mCacheFile);
+        FileOutputStream out = null;
+        try {
+            byte[] key = getSourceKey();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + key.length);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(key.length).put(key).flip();
+
+            out = file.startWrite();
+            FileChannel channel = out.getChannel();
+            for (ByteBuffer buffer : new ByteBuffer[] {header, index.getBuffer()}) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            file.finishWrite(out);
+        } catch (IOException e) {
+            Slog.w(TAG, "Failed to write aconfig flag index", e);
+            file.failWrite(out);
+        }
+    }
+
+    private boolean keyMatches(ByteBuffer contents, int offset, int length) throws IOException {
+        byte[] key = getSourceKey();
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (contents.get(offset + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Describes the source files as they are now. Computed once, since the partitions do not
+     * change while the device is running.
+     */
+    private byte[] getSourceKey() throws IOException {
+        if (mSourceKey == null) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            for (String path : mSourcePaths) {
+                File source = new File(path);
+                out.writeUTF(path);
+                if (!source.isFile()) {
+                    out.writeLong(MISSING_FILE);
+                    continue;
+                }
+                out.writeLong(source.length());
+                out.writeLong(source.lastModified());
+                out.write(computeHash(source));
+            }
+            out.flush();
+            mSourceKey = bytes.toByteArray();
+        }
+        return mSourceKey;
+    }
+
+    private static byte[] computeHash(File source) throws IOException {
+        try (FileInputStream in = new FileInputStream(source)) {
+            FileChannel channel = in.getChannel();
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -23,8 +23,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.io.IOException;
-import java.util.Map;
-import java.util.Set;
+import java.util.function.Supplier;
 
 import static android.app.NotificationManager.IMPORTANCE_HIGH;
 import static java.time.temporal.ChronoUnit.SECONDS;
@@ -65,12 +64,21 @@ class BootNotificationCreator implements OnPropertiesChangedListener {
 
     private LocalDateTime lastReboot;
 
-    private Map<String, Set<String>> aconfigFlags;
+    private Supplier<AconfigFlagIndex> aconfigFlags;
 
+    private StagedFlagsTracker stagedFlags;
+
+    /**
+     * @param aconfigFlags supplies the index of aconfig flags on the device; it is only called
+     *                     once a staged change needs to be classified
+     * @param stagedFlags records the aconfig flags that are waiting for a reboot
+     */
     public BootNotificationCreator(@NonNull Context context,
-                                   Map<String, Set<String>> aconfigFlags) {
+                                   @NonNull Supplier<AconfigFlagIndex> aconfigFlags,
+                                   @NonNull StagedFlagsTracker stagedFlags) {
         this.context = context;
         this.aconfigFlags = aconfigFlags;
+        this.stagedFlags = stagedFlags;
 
         this.context.registerReceiver(
             new HardRebootBroadcastReceiver(),
@@ -86,7 +94,7 @@ class BootNotificationCreator implements OnPropertiesChangedListener {
 
     @Override
     public void onPropertiesChanged(Properties properties) {
-        if (!containsAconfigChanges(properties)) {
+        if (!recordAconfigChanges(properties) || !stagedFlags.hasPending()) {
             return;
         }
 
@@ -120,28 +128,44 @@ class BootNotificationCreator implements OnPropertiesChangedListener {
             AlarmManager.RTC_WAKEUP, scheduledPostTimeLong, pendingIntent);
     }
 
-    private boolean containsAconfigChanges(Properties properties) {
+    /**
+     * Records the staged aconfig flags in {@link #stagedFlags}, and returns whether any of the
+     * changed keys is an aconfig flag. Runs for every staged push, so the keys are probed in place
+     * rather than split into namespace and flag name.
+     */
+    private boolean recordAconfigChanges(Properties properties) {
+        AconfigFlagIndex index = aconfigFlags.get();
+        boolean containsAconfigChanges = false;
+        boolean pendingChanged = false;
         for (String namespaceAndFlag : properties.getKeyset()) {
-            int firstStarIndex = namespaceAndFlag.indexOf("*");
-            if (firstStarIndex == -1 || firstStarIndex == 0
-                || firstStarIndex == namespaceAndFlag.length() - 1) {
+            int firstStarIndex = namespaceAndFlag.indexOf('*');
+            int length = namespaceAndFlag.length();
+            if (firstStarIndex == -1 || firstStarIndex == 0 || firstStarIndex == length - 1) {
                 Slog.w(TAG, "detected malformed staged flag: " + namespaceAndFlag);
                 continue;
             }
 
-            String namespace = namespaceAndFlag.substring(0, firstStarIndex);
-            String flag = namespaceAndFlag.substring(firstStarIndex + 1);
-
-            if (aconfigFlags.get(namespace) != null && aconfigFlags.get(namespace).contains(flag)) {
-                return true;
+            if (index.contains(namespaceAndFlag, 0, length)) {
+                containsAconfigChanges = true;
+                // a deleted key is delivered with a null value
+                boolean staged = properties.getString(namespaceAndFlag, null) != null;
+                pendingChanged |= stagedFlags.update(namespaceAndFlag, staged);
             }
         }
-        return false;
+        if (pendingChanged) {
+            stagedFlags.persist();
+        }
+        return containsAconfigChanges;
     }
 
     private class PostNotificationBroadcastReceiver extends BroadcastReceiver {
         @Override
         public void onReceive(Context context, Intent intent) {
+            if (!stagedFlags.hasPending()) {
+                Slog.i(TAG, "no staged flags pending, not posting notif");
+                return;
+            }
+
             LocalDateTime now = LocalDateTime.now(ZoneId.systemDefault());
 
             if (lastReboot.until(now, SECONDS) < MIN_SECONDS_TO_SHOW_NOTIF) {
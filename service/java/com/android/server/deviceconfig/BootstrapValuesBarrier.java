@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import android.annotation.NonNull;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets readers wait until the bootstrap values of a namespace have been applied.
+ *
+ * <p>Waiting for a namespace only blocks until the bootstrap file has been parsed and that
+ * namespace's values are written; namespaces that the file does not touch are released as soon as
+ * parsing is done. Everything is released by {@link #markFinished()}, including when applying the
+ * values fails, so readers never wait for longer than the apply itself.
+ *
+ * @hide
+ */
+final class BootstrapValuesBarrier {
+    private final CountDownLatch mParsed = new CountDownLatch(1);
+    private final Map<String, CountDownLatch> mPendingNamespaces = new ConcurrentHashMap<>();
+
+    /**
+     * Records the namespaces that are about to be written, and releases readers of any other
+     * namespace.
+     */
+    void markParsed(@NonNull Collection<String> pendingNamespaces) {
+        for (String namespace : pendingNamespaces) {
+            mPendingNamespaces.putIfAbsent(namespace, new CountDownLatch(1));
+        }
+        mParsed.countDown();
+    }
+
+    /** Releases readers of {@code namespace}. */
+    void markNamespaceApplied(@NonNull String namespace) {
+        CountDownLatch latch = mPendingNamespaces.remove(namespace);
+        if (latch != null) {
+            latch.countDown();
+        }
+    }
+
+    /** Releases all readers. */
+    void markFinished() {
+        mParsed.countDown();
+        for (String namespace : mPendingNamespaces.keySet()) {
+            markNamespaceApplied(namespace);
+        }
+    }
+
+    /**
+     * Waits until the bootstrap values of {@code namespace} have been applied.
+     *
+     * @return {@code true} if the namespace is ready, {@code false} if the timeout elapsed first
+     */
+    boolean awaitNamespace(@NonNull String namespace, long timeout, @NonNull TimeUnit unit)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (!mParsed.await(timeout, unit)) {
+            return false;
+        }
+        CountDownLatch latch = mPendingNamespaces.get(namespace);
+        return latch == null
+                || latch.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import android.annotation.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parses the bootstrap values file ({@code /system/etc/device-config-defaults}).
+ *
+ * <p>Each line has the form {@code <namespace>:<package>.<flag-name>=[enabled|disabled]}. The
+ * file is scanned as bytes, so the only strings created are one per distinct namespace and one
+ * per key. The whole input is validated before a {@link Table} is returned.
+ *
+ * @hide
+ */
+final class BootstrapValuesParser {
+    private static final byte[] ENABLED = "enabled".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DISABLED = "disabled".getBytes(StandardCharsets.US_ASCII);
+
+    private BootstrapValuesParser() {
+        // do not instantiate
+    }
+
+    /**
+     * Maps {@code path} read-only. The mapping stays valid after this returns.
+     */
+    @NonNull
+    static ByteBuffer map(@NonNull Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Parses the contents of a bootstrap values file. Blank lines are ignored.
+     *
+     * @throws IllegalArgumentException if any line is malformed; the message has its line number
+     */
+    @NonNull
+    static Table parse(@NonNull ByteBuffer contents) {
+        Table.Builder builder = new Table.Builder();
+        byte[] scratch = new byte[128];
+        int limit = contents.limit();
+        int lineNumber = 0;
+        int position = contents.position();
+        while (position < limit) {
+            lineNumber++;
+            int lineStart = position;
+            int namespaceDelimiter = -1;
+            int valueDelimiter = -1;
+            while (position < limit && contents.get(position) != '\n') {
+                byte b = contents.get(position);
+                if (b == ':' && namespaceDelimiter == -1) {
+                    namespaceDelimiter = position;
+                } else if (b == '=' && valueDelimiter == -1) {
+                    valueDelimiter = position;
+                }
+                position++;
+            }
+            int lineEnd = position;
+            position++;
+            if (lineEnd > lineStart && contents.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (lineEnd == lineStart) {
+                continue;
+            }
+
+            if (namespaceDelimiter <= lineStart) {
+                throw malformed(lineNumber, "missing namespace");
+            }
+            if (valueDelimiter == -1 || valueDelimiter < namespaceDelimiter + 2) {
+                throw malformed(lineNumber, "missing flag name");
+            }
+            boolean enabled;
+            if (regionEquals(contents, valueDelimiter + 1, lineEnd, ENABLED)) {
+                enabled = true;
+            } else if (regionEquals(contents, valueDelimiter + 1, lineEnd, DISABLED)) {
+                enabled = false;
+            } else {
+                throw malformed(lineNumber, "value must be enabled or disabled");
+            }
+
+            scratch = ensureCapacity(scratch, lineEnd - lineStart);
+            int namespace = builder.internNamespace(
+                    contents, lineStart, namespaceDelimiter - lineStart, scratch);
+            String key = decode(contents, namespaceDelimiter + 1, valueDelimiter, scratch);
+            builder.add(namespace, key, enabled);
+        }
+        return builder.build();
+    }
+
+    private static IllegalArgumentException malformed(int lineNumber, String reason) {
+        return new IllegalArgumentException(
+                "Malformed bootstrap value on line " + lineNumber + ": " + reason);
+    }
+
+    private static boolean regionEquals(ByteBuffer contents, int start, int end, byte[] expected) {
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (contents.get(start + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] ensureCapacity(byte[] scratch, int length) {
+        return scratch.length >= length ? scratch : new byte[Math.max(length, scratch.length * 2)];
+    }
+
+    private static String decode(ByteBuffer contents, int start, int end, byte[] scratch) {
+        int length = end - start;
+        for (int i = 0; i < length; i++) {
+            scratch[i] = contents.get(start + i);
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The parsed entries, as parallel arrays grouped by namespace.
+     */
+    static final class Table {
+        private final String[] mNamespaces;
+        private final int[] mNamespaceStart;
+        private final String[] mKeys;
+        private final BitSet mEnabled;
+
+        private Table(String[] namespaces, int[] namespaceStart, String[] keys, BitSet enabled) {
+            mNamespaces = namespaces;
+            mNamespaceStart = namespaceStart;
+            mKeys = keys;
+            mEnabled = enabled;
+        }
+
+        /** Returns the total number of entries. */
+        int size() {
+            return mKeys.length;
+        }
+
+        int getNamespaceCount() {
+            return mNamespaces.length;
+        }
+
+        @NonNull
+        String getNamespace(int namespaceIndex) {
+            return mNamespaces[namespaceIndex];
+        }
+
+        /** Returns the index of the first entry of the namespace. */
+        int getNamespaceStart(int namespaceIndex) {
+            return mNamespaceStart[namespaceIndex];
+        }
+
+        /** Returns the index after the last entry of the namespace. */
+        int getNamespaceEnd(int namespaceIndex) {
+            return mNamespaceStart[namespaceIndex + 1];
+        }
+
+        @NonNull
+        String getKey(int entry) {
+            return mKeys[entry];
+        }
+
+        /** Returns the value of the entry as written to DeviceConfig. */
+        @NonNull
+        String getValue(int entry) {
+            return mEnabled.get(entry) ? "true" : "false";
+        }
+
+        /**
+         * Returns the entries as a map of namespace to key to value. If a key appears more than
+         * once, the last value wins.
+         */
+        @NonNull
+        Map<String, Map<String, String>> toMap() {
+            Map<String, Map<String, String>> map = new LinkedHashMap<>();
+            for (int n = 0; n < mNamespaces.length; n++) {
+                Map<String, String> values = new LinkedHashMap<>();
+                for (int entry = getNamespaceStart(n); entry < getNamespaceEnd(n); entry++) {
+                    values.put(mKeys[entry], getValue(entry));
+                }
+                map.put(mNamespaces[n], values);
+            }
+            return map;
+        }
+
+        private static final class Builder {
+            private final Map<String, Integer> mNamespaceIds = new HashMap<>();
+            private String[] mNamespaces = new String[16];
+            private int mNamespaceCount;
+            private int mLastNamespace = -1;
+
+            private int[] mEntryNamespaces = new int[256];
+            private String[] mKeys = new String[256];
+            private final BitSet mEnabled = new BitSet();
+            private int mSize;
+
+            /**
+             * Returns the id of the namespace in the given region, only creating a string the
+             * first time a namespace is seen after a different one.
+             */
+            int internNamespace(ByteBuffer contents, int start, int length, byte[] scratch) {
+                if (mLastNamespace != -1
+                        && regionEquals(mNamespaces[mLastNamespace], contents, start, length)) {
+                    return mLastNamespace;
+                }
+                String namespace = decode(contents, start, start + length, scratch);
+                Integer id = mNamespaceIds.get(namespace);
+                if (id == null) {
+                    if (mNamespaceCount == mNamespaces.length) {
+                        mNamespaces = Arrays.copyOf(mNamespaces, mNamespaceCount * 2);
+                    }
+                    id = mNamespaceCount++;
+                    mNamespaces[id] = namespace;
+                    mNamespaceIds.put(namespace, id);
+                }
+                mLastNamespace = id;
+                return id;
+            }
+
+            void add(int namespace, String key, boolean enabled) {
+                if (mSize == mKeys.length) {
+                    mKeys = Arrays.copyOf(mKeys, mSize * 2);
+                    mEntryNamespaces = Arrays.copyOf(mEntryNamespaces, mSize * 2);
+                }
+                mEntryNamespaces[mSize] = namespace;
+                mKeys[mSize] = key;
+                mEnabled.set(mSize, enabled);
+                mSize++;
+            }
+
+            /** Groups the entries by namespace, keeping their order within each namespace. */
+            Table build() {
+                int[] namespaceStart = new int[mNamespaceCount + 1];
+                for (int i = 0; i < mSize; i++) {
+                    namespaceStart[mEntryNamespaces[i] + 1]++;
+                }
+                for (int n = 0; n < mNamespaceCount; n++) {
+                    namespaceStart[n + 1] += namespaceStart[n];
+                }
+                int[] next = Arrays.copyOf(namespaceStart, mNamespaceCount);
+                String[] keys = new String[mSize];
+                BitSet enabled = new BitSet(mSize);
+                for (int i = 0; i < mSize; i++) {
+                    int entry = next[mEntryNamespaces[i]]++;
+                    keys[entry] = mKeys[i];
+                    enabled.set(entry, mEnabled.get(i));
+                }
+                return new Table(Arrays.copyOf(mNamespaces, mNamespaceCount), namespaceStart, keys,
+                        enabled);
+            }
+
+            private static boolean regionEquals(String namespace, ByteBuffer contents, int start,
+                    int length) {
+                // namespaces are ASCII in practice; anything else just misses this fast path
+                if (namespace.length() != length) {
+                    return false;
+                }
+                for (int i = 0; i < length; i++) {
+                    if (namespace.charAt(i) != contents.get(start + i)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+    }
+}
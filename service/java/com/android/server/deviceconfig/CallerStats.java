@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import android.annotation.NonNull;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Counts the calls, payload bytes and time spent per calling uid.
+ *
+ * <p>The table has a fixed size: uids are spread over {@value #STRIPES} stripes with their own
+ * lock, and each stripe holds up to {@value #SLOTS_PER_STRIPE} uids. Once a stripe is full, its
+ * further uids are counted together as "other", so a flood of distinct callers cannot grow the
+ * table.
+ *
+ * @hide
+ */
+final class CallerStats {
+    static final int STRIPES = 16;
+    static final int SLOTS_PER_STRIPE = 16;
+
+    /** Shown in place of a uid for the callers that did not fit in the table. */
+    static final int OTHER_UID = -1;
+
+    private final Stripe[] mStripes = new Stripe[STRIPES];
+
+    CallerStats() {
+        for (int i = 0; i < STRIPES; i++) {
+            mStripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Records one call.
+     *
+     * @param write whether the call changed any value
+     * @param bytes approximate size of the call's keys and values
+     * @param nanos time spent handling the call
+     */
+    void record(int uid, boolean write, long bytes, long nanos) {
+        // spread consecutive uids over the stripes
+        int hash = uid * 0x9E3779B9;
+        mStripes[(hash >>> 16) & (STRIPES - 1)].record(uid, write, bytes, nanos);
+    }
+
+    /** Prints one line per caller, the callers that spent the most time first. */
+    void dump(@NonNull PrintWriter pw) {
+        List<long[]> rows = new ArrayList<>();
+        for (Stripe stripe : mStripes) {
+            stripe.collect(rows);
+        }
+        // each stripe has its own overflow row; show them as a single "other" caller
+        long[] other = null;
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            long[] row = rows.get(i);
+            if (row[Stripe.UID] != OTHER_UID) {
+                continue;
+            }
+            rows.remove(i);
+            if (other == null) {
+                other = row;
+            } else {
+                for (int field = Stripe.READS; field < Stripe.FIELDS; field++) {
+                    other[field] += row[field];
+                }
+            }
+        }
+        if (other != null) {
+            rows.add(other);
+        }
+        rows.sort((a, b) -> Long.compare(b[Stripe.NANOS], a[Stripe.NANOS]));
+        pw.println("Callers (" + rows.size() + "):");
+        for (long[] row : rows) {
+            int uid = (int) row[Stripe.UID];
+            pw.println("  uid=" + (uid == OTHER_UID ? "other" : Integer.toString(uid))
+                    + " reads=" + row[Stripe.READS]
+                    + " writes=" + row[Stripe.WRITES]
+                    + " bytes=" + row[Stripe.BYTES]
+                    + " timeMs=" + String.format(Locale.ROOT, "%.3f",
+                            row[Stripe.NANOS] / 1_000_000.0));
+        }
+    }
+
+    private static final class Stripe {
+        static final int UID = 0;
+        static final int READS = 1;
+        static final int WRITES = 2;
+        static final int BYTES = 3;
+        static final int NANOS = 4;
+        static final int FIELDS = 5;
+
+        // the last row counts the uids that do not fit
+        private final long[] mRows = new long[(SLOTS_PER_STRIPE + 1) * FIELDS];
+        private int mUsed;
+
+        Stripe() {
+            mRows[SLOTS_PER_STRIPE * FIELDS + UID] = OTHER_UID;
+        }
+
+        synchronized void record(int uid, boolean write, long bytes, long nanos) {
+            int row = find(uid) * FIELDS;
+            mRows[row + (write ? WRITES : READS)]++;
+            mRows[row + BYTES] += bytes;
+            mRows[row + NANOS] += nanos;
+        }
+
+        private int find(int uid) {
+            for (int i = 0; i < mUsed; i++) {
+                if (mRows[i * FIELDS + UID] == uid) {
+                    return i;
+                }
+            }
+            if (mUsed == SLOTS_PER_STRIPE) {
+                return SLOTS_PER_STRIPE;
+            }
+            mRows[mUsed * FIELDS + UID] = uid;
+            return mUsed++;
+        }
+
+        synchronized void collect(List<long[]> rows) {
+            for (int i = 0; i <= SLOTS_PER_STRIPE; i++) {
+                if (i < mUsed || (i == SLOTS_PER_STRIPE && isUsed(i))) {
+                    long[] row = new long[FIELDS];
+                    System.arraycopy(mRows, i * FIELDS, row, 0, FIELDS);
+                    rows.add(row);
+                }
+            }
+        }
+
+        private boolean isUsed(int row) {
+            return mRows[row * FIELDS + READS] + mRows[row * FIELDS + WRITES] > 0;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import android.annotation.NonNull;
+import android.annotation.Nullable;
+import android.provider.DeviceConfigDelta;
+
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Remembers the last flag changes made through the service, so that clients can catch up with
+ * {@link #getChangesSince} instead of reading whole namespaces again.
+ *
+ * <p>Each change gets the next sequence number and is kept in a ring buffer of fixed capacity;
+ * once it is full, the oldest change is dropped. A client that asks for changes since a point the
+ * buffer no longer covers is told to resync. The journal only lives in memory: the epoch is drawn
+ * at random when the journal is created, and again by {@link #clear}, so that sequence numbers
+ * from a previous run of system_server are never taken as valid.
+ *
+ * @hide
+ */
+final class ChangeJournal {
+    static final int DEFAULT_CAPACITY = 4096;
+
+    private final int mCapacity;
+
+    // all guarded by this
+    private final String[] mNamespaces;
+    private final String[] mKeys;
+    private final String[] mValues;
+    private long mEpoch;
+    /** Sequence number of the most recent change, 0 if there was none. */
+    private long mSequence;
+
+    ChangeJournal() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    ChangeJournal(int capacity) {
+        mCapacity = capacity;
+        mNamespaces = new String[capacity];
+        mKeys = new String[capacity];
+        mValues = new String[capacity];
+        mEpoch = newEpoch();
+    }
+
+    /** Records that a flag was set, or deleted if {@code value} is {@code null}. */
+    synchronized void record(@NonNull String namespace, @NonNull String key,
+            @Nullable String value) {
+        mSequence++;
+        int slot = (int) (mSequence % mCapacity);
+        mNamespaces[slot] = namespace;
+        mKeys[slot] = key;
+        mValues[slot] = value;
+    }
+
+    /** Records several flags of one namespace; a {@code null} value means the flag was deleted. */
+    synchronized void record(@NonNull String namespace, @NonNull Map<String, String> values) {
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            record(namespace, entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Forgets every change and starts a new epoch, for changes that are too large to record one
+     * flag at a time. Every client then has to resync.
+     */
+    synchronized void clear() {
+        mEpoch = newEpoch();
+        mSequence = 0;
+    }
+
+    /**
+     * Returns the latest value of each flag changed after {@code sequence}, or a resync if the
+     * journal does not cover that point.
+     */
+    @NonNull
+    synchronized DeviceConfigDelta getChangesSince(long epoch, long sequence) {
+        long oldest = Math.max(1, mSequence - mCapacity + 1);
+        if (epoch != mEpoch || sequence > mSequence || sequence < oldest - 1) {
+            return DeviceConfigDelta.resync(mEpoch, mSequence);
+        }
+        Map<String, Map<String, String>> changes = new HashMap<>();
+        // oldest first, so that later values of a flag replace earlier ones
+        for (long seq = sequence + 1; seq <= mSequence; seq++) {
+            int slot = (int) (seq % mCapacity);
+            changes.computeIfAbsent(mNamespaces[slot], ns -> new HashMap<>())
+                    .put(mKeys[slot], mValues[slot]);
+        }
+        return new DeviceConfigDelta(mEpoch, mSequence, false, changes);
+    }
+
+    synchronized void dump(@NonNull PrintWriter pw) {
+        pw.println("Change journal: epoch=" + mEpoch + " sequence=" + mSequence
+                + " kept=" + Math.min(mSequence, mCapacity) + "/" + mCapacity);
+    }
+
+    private static long newEpoch() {
+        long epoch;
+        do {
+            epoch = ThreadLocalRandom.current().nextLong();
+        } while (epoch == 0);
+        return epoch;
+    }
+}
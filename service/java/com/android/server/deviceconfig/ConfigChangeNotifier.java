@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import android.annotation.NonNull;
+import android.content.ContentResolver;
+import android.net.Uri;
+import android.os.Binder;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Tells DeviceConfig listeners about values the service changed.
+ *
+ * <p>Changes are sent the way the settings provider sends them, as a change to
+ * {@code content://settings/config/<namespace>/<key>/<key>...}, so that listeners read every
+ * changed key of a namespace from a single notification.
+ *
+ * <p>Nothing is sent while DeviceConfig reads through the settings provider: listeners would
+ * re-read the provider's value, which the service did not change.
+ *
+ * @hide
+ */
+final class ConfigChangeNotifier {
+    private static final Uri CONFIG_URI = new Uri.Builder()
+            .scheme(ContentResolver.SCHEME_CONTENT)
+            .authority("settings")
+            .appendPath("config")
+            .build();
+
+    /**
+     * Whether DeviceConfig reads the values this service stores. It reads through
+     * SettingsConfigDataStore until the service-backed store replaces it.
+     */
+    static final boolean DEVICE_CONFIG_READS_SERVICE = false;
+
+    private final ContentResolver mResolver;
+
+    ConfigChangeNotifier(@NonNull ContentResolver resolver) {
+        mResolver = resolver;
+    }
+
+    /**
+     * Sends one notification per namespace, listing all of its changed keys, once DeviceConfig
+     * reads the service's values.
+     *
+     * @return the number of changed keys
+     */
+    int notifyChanged(@NonNull Map<String, ? extends Collection<String>> keysByNamespace) {
+        if (!DEVICE_CONFIG_READS_SERVICE) {
+            return countKeys(keysByNamespace);
+        }
+        int count = 0;
+        long token = Binder.clearCallingIdentity();
+        try {
+            for (Map.Entry<String, ? extends Collection<String>> namespace
+                    : keysByNamespace.entrySet()) {
+                if (!namespace.getValue().isEmpty()) {
+                    mResolver.notifyChange(buildUri(namespace.getKey(), namespace.getValue()),
+                            null);
+                    count += namespace.getValue().size();
+                }
+            }
+        } finally {
+            Binder.restoreCallingIdentity(token);
+        }
+        return count;
+    }
+
+    private static int countKeys(@NonNull Map<String, ? extends Collection<String>> keys) {
+        int count = 0;
+        for (Collection<String> namespaceKeys : keys.values()) {
+            count += namespaceKeys.size();
+        }
+        return count;
+    }
+
+    @NonNull
+    static Uri buildUri(@NonNull String namespace, @NonNull Collection<String> keys) {
+        Uri.Builder builder = CONFIG_URI.buildUpon().appendPath(namespace);
+        for (String key : keys) {
+            builder.appendPath(key);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import android.annotation.NonNull;
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import com.android.server.deviceconfig.db.DeviceConfigDbAdapter;
+import com.android.server.deviceconfig.proto.FlagValue;
+import com.android.server.deviceconfig.proto.NamespaceSnapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Machine readable snapshots of every DeviceConfig value, written as they are read from the
+ * database.
+ *
+ * <p>Two formats are supported:
+ * <ul>
+ *     <li>{@value #FORMAT_PROTO}: one length-delimited {@link NamespaceSnapshot} per namespace.
+ *     <li>{@value #FORMAT_NDJSON}: one JSON object per line and per flag, with the fields
+ *     {@code namespace}, {@code key} and {@code value}, which is {@code null} for null values.
+ * </ul>
+ * In both, namespaces and keys are sorted, so two snapshots can be compared line by line or
+ * message by message. Output goes through a buffer of {@value #BUFFER_SIZE} bytes, and only one
+ * namespace is held in memory at a time. {@link #read} accepts the same formats, in any order.
+ *
+ * @hide
+ */
+final class ConfigSnapshot {
+    static final String FORMAT_PROTO = "proto";
+    static final String FORMAT_NDJSON = "ndjson";
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private ConfigSnapshot() {
+        // do not instantiate
+    }
+
+    /** Returns whether {@code format} is one of the supported formats. */
+    static boolean isFormat(String format) {
+        return FORMAT_PROTO.equals(format) || FORMAT_NDJSON.equals(format);
+    }
+
+    /**
+     * Writes every value of {@code adapter} to {@code out}. The stream is flushed but not closed.
+     *
+     * @return the number of values written
+     */
+    static int write(@NonNull DeviceConfigDbAdapter adapter, @NonNull String format,
+            @NonNull OutputStream out) throws IOException {
+        SnapshotWriter writer = FORMAT_PROTO.equals(format)
+                ? new ProtoWriter(out)
+                : new NdjsonWriter(out);
+        adapter.forEachValue(writer);
+        writer.finish();
+        return writer.mCount;
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write}.
+     *
+     * @return the values, by namespace and then key; a value may be {@code null}
+     * @throws IllegalArgumentException if an entry has no namespace or key, or, for
+     *     {@value #FORMAT_NDJSON}, a line is not a JSON object
+     * @throws IOException if the stream cannot be read, or is not a valid proto snapshot
+     */
+    @NonNull
+    static Map<String, Map<String, String>> read(@NonNull String format, @NonNull InputStream in)
+            throws IOException {
+        Map<String, Map<String, String>> values = new HashMap<>();
+        if (FORMAT_PROTO.equals(format)) {
+            InputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+            NamespaceSnapshot namespace;
+            while ((namespace = NamespaceSnapshot.parseDelimitedFrom(buffered)) != null) {
+                String location = "namespace " + namespace.getNamespace();
+                for (FlagValue flag : namespace.getFlagsList()) {
+                    put(values, namespace.getNamespace(), flag.getKey(),
+                            flag.hasValue() ? flag.getValue() : null, location);
+                }
+            }
+            return values;
+        }
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!line.isBlank()) {
+                readNdjsonLine(line, values, "line " + lineNumber);
+            }
+        }
+        return values;
+    }
+
+    private static void readNdjsonLine(String line, Map<String, Map<String, String>> values,
+            String location) {
+        String namespace = null;
+        String key = null;
+        String value = null;
+        try (JsonReader json = new JsonReader(new StringReader(line))) {
+            json.beginObject();
+            while (json.hasNext()) {
+                String name = json.nextName();
+                if (json.peek() == JsonToken.NULL) {
+                    json.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "namespace":
+                        namespace = json.nextString();
+                        break;
+                    case "key":
+                        key = json.nextString();
+                        break;
+                    case "value":
+                        value = json.nextString();
+                        break;
+                    default:
+                        json.skipValue();
+                        break;
+                }
+            }
+            json.endObject();
+        } catch (IOException | IllegalStateException e) {
+            throw new IllegalArgumentException(location + ": " + e.getMessage(), e);
+        }
+        put(values, namespace, key, value, location);
+    }
+
+    private static void put(Map<String, Map<String, String>> values, String namespace,
+            String key, String value, String location) {
+        if (namespace == null || namespace.isEmpty() || key == null || key.isEmpty()) {
+            throw new IllegalArgumentException(location + ": missing namespace or key");
+        }
+        values.computeIfAbsent(namespace, ns -> new HashMap<>()).put(key, value);
+    }
+
+    private abstract static class SnapshotWriter implements DeviceConfigDbAdapter.ValueVisitor {
+        int mCount;
+
+        /** Writes whatever is still buffered. */
+        abstract void finish() throws IOException;
+    }
+
+    /** Expects the values grouped by namespace, as {@link DeviceConfigDbAdapter} returns them. */
+    private static final class ProtoWriter extends SnapshotWriter {
+        private final OutputStream mOut;
+        private NamespaceSnapshot.Builder mNamespace;
+
+        ProtoWriter(OutputStream out) {
+            mOut = new BufferedOutputStream(out, BUFFER_SIZE);
+        }
+
+        @Override
+        public void visit(String namespace, String key, String value) throws IOException {
+            if (mNamespace != null && !mNamespace.getNamespace().equals(namespace)) {
+                writeNamespace();
+            }
+            if (mNamespace == null) {
+                mNamespace = NamespaceSnapshot.newBuilder().setNamespace(namespace);
+            }
+            FlagValue.Builder flag = FlagValue.newBuilder().setKey(key);
+            if (value != null) {
+                flag.setValue(value);
+            }
+            mNamespace.addFlags(flag);
+            mCount++;
+        }
+
+        @Override
+        void finish() throws IOException {
+            if (mNamespace != null) {
+                writeNamespace();
+            }
+            mOut.flush();
+        }
+
+        private void writeNamespace() throws IOException {
+            mNamespace.build().writeDelimitedTo(mOut);
+            mNamespace = null;
+        }
+    }
+
+    private static final class NdjsonWriter extends SnapshotWriter {
+        private final Writer mOut;
+
+        NdjsonWriter(OutputStream out) {
+            mOut = new BufferedWriter(
+                    new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        }
+
+        @Override
+        public void visit(String namespace, String key, String value) throws IOException {
+            mOut.write("{\"namespace\":");
+            writeString(namespace);
+            mOut.write(",\"key\":");
+            writeString(key);
+            mOut.write(",\"value\":");
+            writeString(value);
+            mOut.write("}\n");
+            mCount++;
+        }
+
+        @Override
+        void finish() throws IOException {
+            mOut.flush();
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                mOut.write("null");
+                return;
+            }
+            mOut.write('"');
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                        mOut.write("\\\"");
+                        break;
+                    case '\\':
+                        mOut.write("\\\\");
+                        break;
+                    case '\n':
+                        mOut.write("\\n");
+                        break;
+                    case '\r':
+                        mOut.write("\\r");
+                        break;
+                    case '\t':
+                        mOut.write("\\t");
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            mOut.write(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                        } else {
+                            mOut.write(c);
+                        }
+                }
+            }
+            mOut.write('"');
+        }
+    }
+}
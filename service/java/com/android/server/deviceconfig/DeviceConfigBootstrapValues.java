@@ -16,15 +16,31 @@
 
 package com.android.server.deviceconfig;
 
+import android.annotation.NonNull;
+import android.annotation.Nullable;
 import android.annotation.SuppressLint;
 import android.provider.DeviceConfig;
+import android.util.AtomicFile;
 import android.util.Slog;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URI;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
-import java.util.stream.Stream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * @hide
@@ -34,81 +50,216 @@ public class DeviceConfigBootstrapValues {
     private static final String SYSTEM_OVERRIDES_PATH = "file:///system/etc/device-config-defaults";
     private static final String META_NAMESPACE = "DeviceConfigBootstrapValues";
     private static final String META_KEY = "processed_values";
+    private static final String META_KEY_CONTENT_HASH = "content_hash";
+    private static final String APPLIED_VALUES_FILE_NAME = "bootstrap_values_applied";
 
     private final String defaultValuesPath;
+    private final File appliedValuesFile;
+    private final String metaNamespace;
+    private final BootstrapValuesBarrier barrier = new BootstrapValuesBarrier();
 
     public DeviceConfigBootstrapValues() {
         this(SYSTEM_OVERRIDES_PATH);
     }
 
     public DeviceConfigBootstrapValues(String defaultValuesPath) {
+        this(defaultValuesPath, ServiceDataFiles.getFile(APPLIED_VALUES_FILE_NAME));
+    }
+
+    /**
+     * @param defaultValuesPath URI of the file with the bootstrap values
+     * @param appliedValuesFile where to record the values that were last applied, so that only
+     *                          the entries that changed are written when the file is updated
+     */
+    public DeviceConfigBootstrapValues(String defaultValuesPath, File appliedValuesFile) {
+        this(defaultValuesPath, appliedValuesFile, META_NAMESPACE);
+    }
+
+    /**
+     * @param metaNamespace the namespace recording which file was applied, so tests do not touch
+     *                      the device's own record
+     */
+    DeviceConfigBootstrapValues(String defaultValuesPath, File appliedValuesFile,
+            String metaNamespace) {
         this.defaultValuesPath = defaultValuesPath;
+        this.appliedValuesFile = appliedValuesFile;
+        this.metaNamespace = metaNamespace;
     }
 
     /**
      * Performs the logic to apply bootstrap values when needed.
      *
-     * If a file with the bootstrap values exists and they haven't been parsed before,
-     * it will parse the file and apply the values.
+     * If a file with the bootstrap values exists and its contents differ from the ones that were
+     * last applied, it will parse the file and apply the entries that were added, changed or
+     * removed since then.
+     *
+     * Readers waiting on {@link #getBarrier()} are released once this returns or throws.
      *
      * @throws IOException if there's a problem reading the bootstrap file
      * @throws RuntimeException if setting the values in DeviceConfig throws an exception
      */
     public void applyValuesIfNeeded() throws IOException {
-        if (getPath().toFile().exists()) {
-            if (checkIfHasAlreadyParsedBootstrapValues()) {
-                Slog.i(TAG, "Bootstrap values already parsed, not processing again");
+        try {
+            applyValuesIfNeededInternal();
+        } finally {
+            barrier.markFinished();
+        }
+    }
+
+    /**
+     * Returns the barrier that is released as the values of each namespace are applied.
+     */
+    BootstrapValuesBarrier getBarrier() {
+        return barrier;
+    }
+
+    @SuppressLint("MissingPermission")
+    private void applyValuesIfNeededInternal() throws IOException {
+        if (!getPath().toFile().exists()) {
+            Slog.i(TAG, "Bootstrap values not found");
+            return;
+        }
+
+        ByteBuffer contents = BootstrapValuesParser.map(getPath());
+        String contentHash = computeContentHash(contents);
+        DeviceConfig.Properties meta = DeviceConfig.getProperties(metaNamespace);
+        String appliedHash = meta.getString(META_KEY_CONTENT_HASH, null);
+        if (contentHash.equals(appliedHash)) {
+            Slog.i(TAG, "Bootstrap values already parsed, not processing again");
+            return;
+        }
+
+        // Every line is validated before anything is written, so a malformed file does not leave
+        // a partially applied set of defaults behind.
+        BootstrapValuesParser.Table newValues = BootstrapValuesParser.parse(contents.duplicate());
+        int changes;
+        if (meta.getKeyset().isEmpty()) {
+            // first boot: nothing has been applied yet
+            barrier.markParsed(namespacesOf(newValues));
+            changes = applyAllValues(newValues);
+        } else {
+            Map<String, Map<String, String>> appliedValues =
+                    appliedHash != null ? readAppliedValues() : null;
+            if (appliedValues == null) {
+                // A file was applied before, but which values it held is not known: the device
+                // was upgraded from a version that did not record them, or the record was lost.
+                // Its values may have been changed since by the server or adb, so none are
+                // written; the current file only becomes the base for the next update.
+                barrier.markParsed(Collections.emptySet());
+                Slog.i(TAG, "No record of the applied bootstrap values, only recording the file");
+                changes = 0;
             } else {
-                parseAndApplyBootstrapValues();
-                Slog.i(TAG, "Parsed bootstrap values");
+                Set<String> pendingNamespaces = namespacesOf(newValues);
+                pendingNamespaces.addAll(appliedValues.keySet());
+                barrier.markParsed(pendingNamespaces);
+                changes = applyChangedValues(appliedValues, newValues.toMap());
             }
-        } else {
-            Slog.i(TAG, "Bootstrap values not found");
         }
+        boolean recorded = writeAppliedValues(contents.duplicate());
+        // store the hash in DeviceConfig so that we know we have successufully
+        // processed this version of the file
+        writeToDeviceConfig(metaNamespace, META_KEY, "true");
+        if (recorded) {
+            // only stored with its record, so a later boot never diffs against another file's
+            writeToDeviceConfig(metaNamespace, META_KEY_CONTENT_HASH, contentHash);
+        }
+        Slog.i(TAG, "Parsed bootstrap values, applied " + changes + " changes");
     }
 
-    @SuppressLint("MissingPermission")
-    private boolean checkIfHasAlreadyParsedBootstrapValues() {
-        DeviceConfig.Properties properties = DeviceConfig.getProperties(META_NAMESPACE);
-        return properties.getKeyset().size() > 0;
+    private static Set<String> namespacesOf(BootstrapValuesParser.Table values) {
+        Set<String> namespaces = new HashSet<>();
+        for (int n = 0; n < values.getNamespaceCount(); n++) {
+            namespaces.add(values.getNamespace(n));
+        }
+        return namespaces;
     }
 
-    @SuppressLint("MissingPermission")
-    private void parseAndApplyBootstrapValues() throws IOException {
-        Path path = getPath();
-        try (Stream<String> lines = Files.lines(path)) {
-            lines.forEach(line -> processLine(line));
+    /**
+     * Writes every entry of {@code values}, straight from the parsed table.
+     *
+     * @return the number of entries that were written
+     */
+    private int applyAllValues(BootstrapValuesParser.Table values) {
+        for (int n = 0; n < values.getNamespaceCount(); n++) {
+            String namespace = values.getNamespace(n);
+            int end = values.getNamespaceEnd(n);
+            for (int entry = values.getNamespaceStart(n); entry < end; entry++) {
+                writeToDeviceConfig(namespace, values.getKey(entry), values.getValue(entry));
+            }
+            barrier.markNamespaceApplied(namespace);
+            Slog.d(TAG, "Applied " + (end - values.getNamespaceStart(n))
+                    + " bootstrap values to " + namespace);
         }
-        // store a property in DeviceConfig so that we know we have successufully
-        // processed this
-        writeToDeviceConfig(META_NAMESPACE, META_KEY, "true");
-    }
-
-    private void processLine(String line) {
-        // contents for each line:
-        // <namespace>:<package>.<flag-name>=[enabled|disabled]
-        // we actually use <package>.<flag-name> combined in calls into DeviceConfig
-        int namespaceDelimiter = line.indexOf(':');
-        String namespace = line.substring(0, namespaceDelimiter);
-        if (namespaceDelimiter < 1) {
-            throw new IllegalArgumentException("Unexpectedly found : at index "
-                    + namespaceDelimiter);
+        return values.size();
+    }
+
+    /**
+     * Writes the entries of {@code newValues} that differ from {@code appliedValues}, and removes
+     * the ones that are no longer present.
+     *
+     * @return the number of entries that were written or removed
+     */
+    private int applyChangedValues(Map<String, Map<String, String>> appliedValues,
+            Map<String, Map<String, String>> newValues) {
+        Set<String> namespaces = new LinkedHashSet<>(newValues.keySet());
+        namespaces.addAll(appliedValues.keySet());
+
+        int changes = 0;
+        for (String namespace : namespaces) {
+            Map<String, String> applied =
+                    appliedValues.getOrDefault(namespace, Collections.emptyMap());
+            Map<String, String> current =
+                    newValues.getOrDefault(namespace, Collections.emptyMap());
+
+            Map<String, String> changed = new LinkedHashMap<>();
+            for (Map.Entry<String, String> value : current.entrySet()) {
+                if (!value.getValue().equals(applied.get(value.getKey()))) {
+                    changed.put(value.getKey(), value.getValue());
+                }
+            }
+            Map<String, String> removed = new LinkedHashMap<>();
+            for (Map.Entry<String, String> value : applied.entrySet()) {
+                if (!current.containsKey(value.getKey())) {
+                    removed.put(value.getKey(), value.getValue());
+                }
+            }
+
+            if (!changed.isEmpty()) {
+                applyNamespaceDefaults(namespace, changed);
+            }
+            if (!removed.isEmpty()) {
+                removeNamespaceDefaults(namespace, removed);
+            }
+            barrier.markNamespaceApplied(namespace);
+            changes += changed.size() + removed.size();
         }
-        int valueDelimiter = line.indexOf('=');
-        if (valueDelimiter < 5) {
-            throw new IllegalArgumentException("Unexpectedly found = at index " + valueDelimiter);
+        return changes;
+    }
+
+    /** Writes the defaults of a single namespace, one value at a time. */
+    private void applyNamespaceDefaults(String namespace, Map<String, String> values) {
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            writeToDeviceConfig(namespace, entry.getKey(), entry.getValue());
         }
-        String key = line.substring(namespaceDelimiter + 1, valueDelimiter);
-        String value = line.substring(valueDelimiter + 1);
-        String val;
-        if ("enabled".equals(value)) {
-            val = "true";
-        } else if ("disabled".equals(value)) {
-            val = "false";
-        } else {
-            throw new IllegalArgumentException("Received unexpected value: " + value);
+        Slog.d(TAG, "Applied " + values.size() + " bootstrap values to " + namespace);
+    }
+
+    /**
+     * Deletes the values that were removed from the bootstrap file, unless something else has
+     * changed them since they were applied.
+     */
+    @SuppressLint("MissingPermission")
+    private void removeNamespaceDefaults(String namespace, Map<String, String> removed) {
+        DeviceConfig.Properties current = DeviceConfig.getProperties(namespace,
+                removed.keySet().toArray(new String[0]));
+        int deleted = 0;
+        for (Map.Entry<String, String> entry : removed.entrySet()) {
+            if (entry.getValue().equals(current.getString(entry.getKey(), null))) {
+                DeviceConfig.deleteProperty(namespace, entry.getKey());
+                deleted++;
+            }
         }
-        writeToDeviceConfig(namespace, key, val);
+        Slog.d(TAG, "Removed " + deleted + " bootstrap values from " + namespace);
     }
 
     @SuppressLint("MissingPermission")
@@ -120,6 +271,54 @@ public class DeviceConfigBootstrapValues {
         }
     }
 
+    /**
+     * Returns the values recorded by the last successful apply, or {@code null} if there is no
+     * usable record.
+     */
+    @Nullable
+    private Map<String, Map<String, String>> readAppliedValues() {
+        try (FileInputStream in = new AtomicFile(appliedValuesFile).openRead()) {
+            FileChannel channel = in.getChannel();
+            return BootstrapValuesParser.parse(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())).toMap();
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            Slog.w(TAG, "Ignoring unreadable record of applied bootstrap values", e);
+            return null;
+        }
+    }
+
+    /** Returns whether the record was written. */
+    private boolean writeAppliedValues(ByteBuffer contents) {
+        AtomicFile file = new AtomicFile(appliedValuesFile);
+        FileOutputStream out = null;
+        try {
+            out = file.startWrite();
+            FileChannel channel = out.getChannel();
+            while (contents.hasRemaining()) {
+                channel.write(contents);
+            }
+            file.finishWrite(out);
+            return true;
+        } catch (IOException e) {
+            Slog.w(TAG, "Failed to record applied bootstrap values", e);
+            file.failWrite(out);
+            return false;
+        }
+    }
+
+    @NonNull
+    private static String computeContentHash(ByteBuffer contents) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(contents.duplicate());
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private Path getPath() {
         return Path.of(URI.create(defaultValuesPath));
     }
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import android.annotation.NonNull;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.os.Binder;
+import android.provider.DeviceConfigLatencyStats;
+
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
+
+/**
+ * Answers {@code dumpsys device_config_updatable} while the updatable service is not started, so
+ * the stats of system_server's own DeviceConfig use can be read on every device.
+ *
+ * @hide
+ */
+final class DeviceConfigDumpService extends Binder {
+    private final Context mContext;
+
+    DeviceConfigDumpService(@NonNull Context context) {
+        mContext = context;
+    }
+
+    @Override
+    protected void dump(FileDescriptor fd, PrintWriter pw, String[] args) {
+        if (mContext.checkCallingOrSelfPermission(android.Manifest.permission.DUMP)
+                != PackageManager.PERMISSION_GRANTED) {
+            pw.println("Permission Denial: can't dump DeviceConfig service");
+            return;
+        }
+        dumpSystemServerStats(pw);
+    }
+
+    /**
+     * Prints the stats of the DeviceConfig calls made by system_server itself, and of the
+     * module's listener callbacks.
+     */
+    static void dumpSystemServerStats(@NonNull PrintWriter pw) {
+        DeviceConfigLatencyStats.getClientStats().dump(pw);
+        ModuleCallbackExecutor.getInstance().dump(pw);
+    }
+}
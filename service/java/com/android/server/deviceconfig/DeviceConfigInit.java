@@ -5,24 +5,17 @@ import static com.android.server.deviceconfig.Flags.enableUnattendedReboot;
 
 import java.io.IOException;
 import java.io.FileDescriptor;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.util.HashSet;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.Executor;
 
-import android.aconfig.Aconfig.parsed_flags;
-import android.aconfig.Aconfig.parsed_flag;
 import android.content.Intent;
 import android.annotation.NonNull;
 import android.annotation.SystemApi;
 import android.content.BroadcastReceiver;
 import android.content.Context;
-import android.os.AsyncTask;
 import android.os.Binder;
 import android.content.IntentFilter;
 import android.provider.DeviceConfig;
+import android.provider.DeviceConfigInitializer;
 import android.provider.UpdatableDeviceConfigServiceReadiness;
 import android.content.ServiceConnection;
 import android.os.IBinder;
@@ -37,10 +30,6 @@ public class DeviceConfigInit {
     private static final String TAG = "DEVICE_CONFIG_INIT";
     private static final String STAGED_NAMESPACE = "staged";
 
-    private static final String SYSTEM_FLAGS_PATH = "/system/etc/aconfig_flags.pb";
-    private static final String SYSTEM_EXT_FLAGS_PATH = "/system_ext/etc/aconfig_flags.pb";
-    private static final String VENDOR_FLAGS_PATH = "/vendor/etc/aconfig_flags.pb";
-
     private DeviceConfigInit() {
         // do not instantiate
     }
@@ -50,6 +39,7 @@ public class DeviceConfigInit {
     public static class Lifecycle extends SystemService {
         private DeviceConfigServiceImpl mService;
         private UnattendedRebootManager mUnattendedRebootManager;
+        private DeviceConfigBootstrapValues mBootstrapValues;
 
         /** @hide */
         @SystemApi(client = SystemApi.Client.SYSTEM_SERVER)
@@ -57,10 +47,24 @@ public class DeviceConfigInit {
             super(context);
             // this service is always instantiated but should only launch subsequent service(s)
             // if the module is ready
+            if (SdkLevel.isAtLeastV()) {
+                mBootstrapValues = new DeviceConfigBootstrapValues();
+            }
             if (UpdatableDeviceConfigServiceReadiness.shouldStartUpdatableService()) {
-                mService = new DeviceConfigServiceImpl(getContext());
+                // binder reads of a namespace wait briefly until its bootstrap values are applied
+                mService = new DeviceConfigServiceImpl(getContext(),
+                        mBootstrapValues != null ? mBootstrapValues.getBarrier() : null);
+                DeviceConfigInitializer.getDeviceConfigServiceManager()
+                        .getDeviceConfigUpdatableServiceRegisterer()
+                        .register(mService);
                 publishBinderService(DeviceConfig.SERVICE_NAME, mService);
+            } else {
+                // only dumps: the DeviceConfig calls of system_server are measured either way
+                publishBinderService(DeviceConfig.SERVICE_NAME,
+                        new DeviceConfigDumpService(getContext()));
             }
+            // Applied before any other system service is constructed: DeviceConfig reads through
+            // the settings provider, which does not wait on the barrier.
             applyBootstrapValues();
         }
 
@@ -70,23 +74,25 @@ public class DeviceConfigInit {
         @Override
         public void onStart() {
             if (enableRebootNotification()) {
-                Map<String, Set<String>> aconfigFlags = new HashMap<>();
-                try {
-                    addAconfigFlagsFromFile(aconfigFlags, SYSTEM_FLAGS_PATH);
-                    addAconfigFlagsFromFile(aconfigFlags, SYSTEM_EXT_FLAGS_PATH);
-                    addAconfigFlagsFromFile(aconfigFlags, VENDOR_FLAGS_PATH);
-                } catch (IOException e) {
-                    Slog.e(TAG, "error loading aconfig flags", e);
-                }
-
+                StagedFlagsTracker stagedFlags = new StagedFlagsTracker();
+                // the aconfig flags are only indexed once a staged change arrives
                 BootNotificationCreator notifCreator = new BootNotificationCreator(
                     getContext().getApplicationContext(),
-                    aconfigFlags);
+                    AconfigFlagIndex::getInstance,
+                    stagedFlags);
 
-                DeviceConfig.addOnPropertiesChangedListener(
-                    STAGED_NAMESPACE,
-                    AsyncTask.THREAD_POOL_EXECUTOR,
-                    notifCreator);
+                // compacting on the same serial executor orders it before any staged change
+                Executor stagedExecutor =
+                    ModuleCallbackExecutor.getInstance().forNamespace(STAGED_NAMESPACE);
+                stagedExecutor.execute(() -> {
+                    // flags applied by the last reboot are no longer in the staged namespace
+                    stagedFlags.compact(
+                        DeviceConfig.getProperties(STAGED_NAMESPACE).getKeyset());
+                    DeviceConfig.addOnPropertiesChangedListener(
+                        STAGED_NAMESPACE,
+                        stagedExecutor,
+                        notifCreator);
+                });
             }
 
             if (enableUnattendedReboot()) {
@@ -105,31 +111,18 @@ public class DeviceConfigInit {
             }
         }
 
-        private void addAconfigFlagsFromFile(Map<String, Set<String>> aconfigFlags,
-                                             String fileName) throws IOException {
-            byte[] contents = (new FileInputStream(fileName)).readAllBytes();
-            parsed_flags parsedFlags = parsed_flags.parseFrom(contents);
-            for (parsed_flag flag : parsedFlags.getParsedFlagList()) {
-                if (aconfigFlags.get(flag.getNamespace()) == null) {
-                    aconfigFlags.put(flag.getNamespace(), new HashSet<>());
-                    aconfigFlags.get(flag.getNamespace()).add(flag.getName());
-                } else {
-                    aconfigFlags.get(flag.getNamespace()).add(flag.getName());
-                }
-            }
-        }
-
         private void applyBootstrapValues() {
-            if (SdkLevel.isAtLeastV()) {
-                try {
-                    new DeviceConfigBootstrapValues().applyValuesIfNeeded();
-                } catch (RuntimeException e) {
-                    Slog.e(TAG, "Failed to load boot overrides", e);
-                    throw e;
-                } catch (IOException e) {
-                    Slog.e(TAG, "Failed to load boot overrides", e);
-                    throw new RuntimeException(e);
-                }
+            if (mBootstrapValues == null) {
+                return;
+            }
+            try {
+                mBootstrapValues.applyValuesIfNeeded();
+            } catch (RuntimeException e) {
+                Slog.e(TAG, "Failed to load boot overrides", e);
+                throw e;
+            } catch (IOException e) {
+                Slog.e(TAG, "Failed to load boot overrides", e);
+                throw new RuntimeException(e);
             }
         }
     }
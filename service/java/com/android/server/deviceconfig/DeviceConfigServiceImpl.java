@@ -16,18 +16,48 @@
 
 package com.android.server.deviceconfig;
 
+import static android.Manifest.permission.READ_DEVICE_CONFIG;
+import static android.Manifest.permission.READ_WRITE_SYNC_DISABLED_MODE_CONFIG;
+import static android.Manifest.permission.WRITE_ALLOWLISTED_DEVICE_CONFIG;
+import static android.Manifest.permission.WRITE_DEVICE_CONFIG;
+
 import android.annotation.NonNull;
+import android.annotation.Nullable;
 import android.content.Context;
+import android.content.pm.PackageManager;
+import android.os.Binder;
 import android.os.ParcelFileDescriptor;
 import android.os.RemoteException;
+import android.os.SharedMemory;
 import android.provider.aidl.IDeviceConfigManager;
-import android.provider.DeviceConfigInitializer;
+import android.provider.aidl.IDeviceConfigWriteCallback;
+import android.provider.CompactProperties;
+import android.provider.DeviceConfig;
+import android.provider.DeviceConfigDelta;
+import android.provider.DeviceConfigLatencyStats;
+import android.provider.NamespaceRegistry;
+import android.util.AtomicFile;
+import android.util.Slog;
 
 import com.android.server.deviceconfig.db.DeviceConfigDbAdapter;
 import com.android.server.deviceconfig.db.DeviceConfigDbHelper;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 
 import com.android.modules.utils.BasicShellCommandHandler;
 
@@ -38,35 +68,339 @@ import com.android.modules.utils.BasicShellCommandHandler;
  * @hide
  */
 public class DeviceConfigServiceImpl extends IDeviceConfigManager.Stub {
+    private static final String TAG = "DeviceConfigServiceImpl";
+
+    /** Present while sync is disabled with {@code SYNC_DISABLED_MODE_PERSISTENT}. */
+    private static final String SYNC_DISABLED_FILE_NAME = "sync_disabled_for_tests";
+
+    /**
+     * How long a read waits for the bootstrap values of its namespace, before going ahead with
+     * whatever is stored.
+     */
+    private static final long BOOTSTRAP_VALUES_TIMEOUT_MILLIS = 250;
+
+    private final Context mContext;
     private final DeviceConfigDbAdapter mDbAdapter;
+    private final DeviceConfigLatencyStats mLatencyStats =
+            new DeviceConfigLatencyStats("DeviceConfigService");
+    private final CallerStats mCallerStats = new CallerStats();
+    private final ConfigChangeNotifier mChangeNotifier;
+    private final ChangeJournal mJournal = new ChangeJournal();
+    /**
+     * Held across each database write and its journal records, so the journal lists changes in
+     * the order they were committed.
+     */
+    private final Object mWriteLock = new Object();
+    private final SharedConfigPages mSharedPages;
+    private final GroupCommitWriter mAsyncWriter = new GroupCommitWriter(this::setValues);
+    private final File mSyncDisabledFile;
+    private volatile int mSyncDisabledMode;
+    @Nullable
+    private final BootstrapValuesBarrier mBootstrapBarrier;
 
     public DeviceConfigServiceImpl(Context context) {
+        this(context, null);
+    }
+
+    /**
+     * @param bootstrapBarrier released as the bootstrap values are applied, or {@code null} if
+     *                         there are none to wait for
+     */
+    DeviceConfigServiceImpl(Context context, @Nullable BootstrapValuesBarrier bootstrapBarrier) {
+        mContext = context;
+        mBootstrapBarrier = bootstrapBarrier;
         DeviceConfigDbHelper dbHelper = new DeviceConfigDbHelper(context);
         mDbAdapter = new DeviceConfigDbAdapter(dbHelper.getWritableDatabase());
-
-        DeviceConfigInitializer.getDeviceConfigServiceManager()
-                .getDeviceConfigUpdatableServiceRegisterer()
-                .register(this);
+        mChangeNotifier = new ConfigChangeNotifier(context.getContentResolver());
+        mSharedPages = new SharedConfigPages(mDbAdapter::getValuesForNamespace);
+        mSyncDisabledFile = ServiceDataFiles.getFile(SYNC_DISABLED_FILE_NAME);
+        mSyncDisabledMode = mSyncDisabledFile.exists()
+                ? DeviceConfig.SYNC_DISABLED_MODE_PERSISTENT
+                : DeviceConfig.SYNC_DISABLED_MODE_NONE;
     }
 
     @Override
-    public Map<String, String> getProperties(String namespace, String[] names) throws RemoteException {
-        return mDbAdapter.getValuesForNamespace(namespace, names);
+    public CompactProperties getProperties(String namespace, String[] names) throws RemoteException {
+        long startNanos = System.nanoTime();
+        Map<String, String> values = null;
+        try {
+            awaitBootstrapValues(namespace);
+            values = mDbAdapter.getValuesForNamespace(namespace, names);
+            return new CompactProperties(namespace, values);
+        } finally {
+            onCallFinished(DeviceConfigLatencyStats.API_GET_PROPERTIES, namespace, startNanos,
+                    /* write= */ false, payloadBytes(names) + payloadBytes(values));
+        }
     }
 
     @Override
     public boolean setProperties(String namespace, Map<String, String> values) {
-        return mDbAdapter.setValues(namespace, values);
+        long startNanos = System.nanoTime();
+        try {
+            if (mSyncDisabledMode != DeviceConfig.SYNC_DISABLED_MODE_NONE) {
+                // bulk updates come from the server sync, which tests have turned off
+                return false;
+            }
+            return setValues(namespace, values);
+        } finally {
+            onCallFinished(DeviceConfigLatencyStats.API_SET_PROPERTIES, namespace, startNanos,
+                    /* write= */ true, payloadBytes(values));
+        }
+    }
+
+    @Override
+    public void setPropertiesAsync(String namespace, Map<String, String> values,
+            IDeviceConfigWriteCallback callback) {
+        mContext.enforceCallingOrSelfPermission(WRITE_DEVICE_CONFIG, "setPropertiesAsync");
+        long startNanos = System.nanoTime();
+        int callingUid = Binder.getCallingUid();
+        if (mSyncDisabledMode != DeviceConfig.SYNC_DISABLED_MODE_NONE) {
+            // same as setProperties
+            onAsyncWriteCompleted(namespace, values, callback, callingUid, startNanos, false);
+            return;
+        }
+        boolean queued = mAsyncWriter.enqueue(namespace, values, success -> onAsyncWriteCompleted(
+                namespace, values, callback, callingUid, startNanos, success));
+        if (!queued) {
+            // counted in the writer's dump; not logged, as a flood of writes would flood the log
+            onAsyncWriteCompleted(namespace, values, callback, callingUid, startNanos, false);
+        }
+    }
+
+    private void onAsyncWriteCompleted(String namespace, Map<String, String> values,
+            IDeviceConfigWriteCallback callback, int callingUid, long startNanos,
+            boolean success) {
+        // not onCallFinished: this may run on the writer thread, which has no calling uid
+        mLatencyStats.record(DeviceConfigLatencyStats.API_SET_PROPERTIES_ASYNC, namespace,
+                startNanos);
+        mCallerStats.record(callingUid, /* write= */ true, payloadBytes(values),
+                System.nanoTime() - startNanos);
+        if (callback == null) {
+            return;
+        }
+        try {
+            callback.onWriteCompleted(success);
+        } catch (RemoteException e) {
+            Slog.w(TAG, "Caller of setPropertiesAsync died before its write completed", e);
+        }
     }
 
     @Override
     public boolean setProperty(String namespace, String key, String value, boolean makeDefault) {
-        return mDbAdapter.setValue(namespace, key, value, makeDefault);
+        long startNanos = System.nanoTime();
+        try {
+            return setValue(namespace, key, value, makeDefault);
+        } finally {
+            onCallFinished(DeviceConfigLatencyStats.API_SET_PROPERTY, namespace, startNanos,
+                    /* write= */ true, payloadBytes(key) + payloadBytes(value));
+        }
     }
 
     @Override
     public  boolean deleteProperty(String namespace, String key) {
-        return mDbAdapter.deleteValue(namespace, key);
+        long startNanos = System.nanoTime();
+        try {
+            return deleteValue(namespace, key);
+        } finally {
+            onCallFinished(DeviceConfigLatencyStats.API_DELETE_PROPERTY, namespace, startNanos,
+                    /* write= */ true, payloadBytes(key));
+        }
+    }
+
+    @Override
+    public boolean importSnapshot(ParcelFileDescriptor snapshot, boolean replace) {
+        mContext.enforceCallingOrSelfPermission(WRITE_DEVICE_CONFIG, "importSnapshot");
+        Map<String, Map<String, String>> values;
+        try (InputStream in = new ParcelFileDescriptor.AutoCloseInputStream(snapshot)) {
+            values = ConfigSnapshot.read(ConfigSnapshot.FORMAT_PROTO, in);
+        } catch (IOException | IllegalArgumentException e) {
+            Slog.w(TAG, "Ignoring invalid snapshot", e);
+            return false;
+        }
+        return importValues(values, replace) >= 0;
+    }
+
+    /**
+     * Applies the values in one transaction, then notifies listeners once per changed namespace.
+     *
+     * @return the number of values that changed, or -1 if nothing could be written
+     */
+    private int importValues(Map<String, Map<String, String>> values, boolean replace) {
+        Map<String, Set<String>> changed;
+        synchronized (mWriteLock) {
+            changed = mDbAdapter.importValues(values, replace);
+            if (changed == null) {
+                return -1;
+            }
+            onValuesChanged(changed);
+        }
+        return mChangeNotifier.notifyChanged(changed);
+    }
+
+    @Override
+    public DeviceConfigDelta getChangesSince(long epoch, long sequence) {
+        mContext.enforceCallingOrSelfPermission(READ_DEVICE_CONFIG, "getChangesSince");
+        return mJournal.getChangesSince(epoch, sequence);
+    }
+
+    @Override
+    public SharedMemory getGenerationTable() {
+        // generations alone reveal nothing but how often namespaces change
+        return mSharedPages.getGenerationTable();
+    }
+
+    @Override
+    public SharedMemory getNamespacePage(String namespace) {
+        if (!NamespaceRegistry.isPublic(namespace)) {
+            mContext.enforceCallingOrSelfPermission(READ_DEVICE_CONFIG, "getNamespacePage");
+        }
+        awaitBootstrapValues(namespace);
+        return mSharedPages.getPage(namespace);
+    }
+
+    /**
+     * Waits briefly for the bootstrap values of {@code namespace}, so that reads early in boot do
+     * not see them half applied.
+     */
+    private void awaitBootstrapValues(String namespace) {
+        if (mBootstrapBarrier == null) {
+            return;
+        }
+        try {
+            if (!mBootstrapBarrier.awaitNamespace(namespace, BOOTSTRAP_VALUES_TIMEOUT_MILLIS,
+                    TimeUnit.MILLISECONDS)) {
+                Slog.w(TAG, "Timed out waiting for the bootstrap values of " + namespace);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // The write paths below record each change in the journal and drop the namespace's shared
+    // page, all under mWriteLock.
+
+    private boolean setValues(String namespace, Map<String, String> values) {
+        synchronized (mWriteLock) {
+            boolean written = mDbAdapter.setValues(namespace, values);
+            onValuesWritten(namespace, values, written);
+            return written;
+        }
+    }
+
+    /** Writes several namespaces in one transaction. */
+    private boolean setValues(Map<String, Map<String, String>> values) {
+        synchronized (mWriteLock) {
+            boolean written = mDbAdapter.setValues(values);
+            for (Map.Entry<String, Map<String, String>> namespace : values.entrySet()) {
+                onValuesWritten(namespace.getKey(), namespace.getValue(), written);
+            }
+            return written;
+        }
+    }
+
+    private boolean setValue(String namespace, String key, String value, boolean makeDefault) {
+        Map<String, String> values = new HashMap<>();
+        values.put(key, value);
+        synchronized (mWriteLock) {
+            boolean written = mDbAdapter.setValue(namespace, key, value, makeDefault);
+            onValuesWritten(namespace, values, written);
+            return written;
+        }
+    }
+
+    /**
+     * Records a write of {@code values} in the journal and drops the namespace's shared page.
+     * This runs after failed writes too: the adapter commits the values it could write even when
+     * another one fails, so the journal gets the values that are actually stored.
+     */
+    private void onValuesWritten(String namespace, Map<String, String> values, boolean written) {
+        if (written) {
+            mJournal.record(namespace, values);
+        } else if (!values.isEmpty()) {
+            String[] keys = values.keySet().toArray(new String[0]);
+            Map<String, String> stored = mDbAdapter.getValuesForNamespace(namespace, keys);
+            for (String key : keys) {
+                mJournal.record(namespace, key, stored.get(key));
+            }
+        }
+        mSharedPages.invalidate(namespace);
+    }
+
+    private boolean deleteValue(String namespace, String key) {
+        synchronized (mWriteLock) {
+            boolean deleted = mDbAdapter.deleteValue(namespace, key);
+            if (deleted) {
+                mJournal.record(namespace, key, null);
+                mSharedPages.invalidate(namespace);
+            }
+            return deleted;
+        }
+    }
+
+    /**
+     * Records the new values of flags changed by a bulk operation in the journal and drops their
+     * shared pages. The caller holds mWriteLock from the operation through this call, so the
+     * values read back are the ones it committed, and notifies listeners after releasing it.
+     */
+    private void onValuesChanged(Map<String, Set<String>> changed) {
+        for (Map.Entry<String, Set<String>> namespace : changed.entrySet()) {
+            if (namespace.getValue().isEmpty()) {
+                continue;
+            }
+            String[] keys = namespace.getValue().toArray(new String[0]);
+            Map<String, String> values =
+                    mDbAdapter.getValuesForNamespace(namespace.getKey(), keys);
+            for (String key : keys) {
+                mJournal.record(namespace.getKey(), key, values.get(key));
+            }
+            mSharedPages.invalidate(namespace.getKey());
+        }
+    }
+
+    private void onCallFinished(@DeviceConfigLatencyStats.Api int api, String namespace,
+            long startNanos, boolean write, long bytes) {
+        mLatencyStats.record(api, namespace, startNanos);
+        mCallerStats.record(Binder.getCallingUid(), write, bytes, System.nanoTime() - startNanos);
+    }
+
+    /** Approximates the size of strings in a parcel, at two bytes per char. */
+    private static long payloadBytes(String value) {
+        return value == null ? 0 : 2L * value.length();
+    }
+
+    private static long payloadBytes(String[] values) {
+        long bytes = 0;
+        if (values != null) {
+            for (String value : values) {
+                bytes += payloadBytes(value);
+            }
+        }
+        return bytes;
+    }
+
+    private static long payloadBytes(Map<String, String> values) {
+        long bytes = 0;
+        if (values != null) {
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                bytes += payloadBytes(entry.getKey()) + payloadBytes(entry.getValue());
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    protected void dump(FileDescriptor fd, PrintWriter pw, String[] args) {
+        if (mContext.checkCallingOrSelfPermission(android.Manifest.permission.DUMP)
+                != PackageManager.PERMISSION_GRANTED) {
+            pw.println("Permission Denial: can't dump DeviceConfig service");
+            return;
+        }
+        mLatencyStats.dump(pw);
+        mCallerStats.dump(pw);
+        DeviceConfigDumpService.dumpSystemServerStats(pw);
+        mJournal.dump(pw);
+        mSharedPages.dump(pw);
+        mAsyncWriter.dump(pw);
     }
 
     @Override
@@ -78,8 +412,58 @@ public class DeviceConfigServiceImpl extends IDeviceConfigManager.Stub {
                 args);
     }
 
-    static final class MyShellCommand extends BasicShellCommandHandler {
-        // TODO(b/265948938) implement this
+    private void setSyncDisabledMode(int mode) {
+        if (mode == DeviceConfig.SYNC_DISABLED_MODE_PERSISTENT) {
+            AtomicFile file = new AtomicFile(mSyncDisabledFile);
+            FileOutputStream out = null;
+            try {
+                out = file.startWrite();
+                file.finishWrite(out);
+            } catch (IOException e) {
+                Slog.w(TAG, "Failed to persist the sync disabled mode", e);
+                file.failWrite(out);
+            }
+        } else {
+            mSyncDisabledFile.delete();
+        }
+        mSyncDisabledMode = mode;
+    }
+
+    /**
+     * Parses the input of {@code put-batch}: one {@code namespace/key=value} per line. Blank lines
+     * and lines starting with {@code #} are skipped; the value is everything after the first
+     * {@code =}, and may be empty. Quotes have no special meaning and are kept in the value.
+     *
+     * @return the values, by namespace and then key
+     * @throws IllegalArgumentException naming the first malformed line
+     */
+    static Map<String, Map<String, String>> parseBatch(@NonNull BufferedReader reader)
+            throws IOException {
+        Map<String, Map<String, String>> values = new HashMap<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            int slash = line.indexOf('/');
+            int equals = line.indexOf('=');
+            // only the namespace and key are trimmed; the value is kept as is
+            String namespace = slash < 0 ? "" : line.substring(0, slash).trim();
+            String key = equals <= slash ? "" : line.substring(slash + 1, equals).trim();
+            if (namespace.isEmpty() || key.isEmpty()) {
+                throw new IllegalArgumentException("line " + lineNumber
+                        + ": expected namespace/key=value, got '" + line + "'");
+            }
+            values.computeIfAbsent(namespace, ns -> new HashMap<>())
+                    .put(key, line.substring(equals + 1));
+        }
+        return values;
+    }
+
+    private final class MyShellCommand extends BasicShellCommandHandler {
 
         @Override
         public int onCommand(String cmd) {
@@ -87,13 +471,403 @@ public class DeviceConfigServiceImpl extends IDeviceConfigManager.Stub {
                 onHelp();
                 return -1;
             }
-            return -1;
+            try {
+                switch (cmd) {
+                    case "get":
+                        return get(getNextArgRequired(), getNextArgRequired());
+                    case "put": {
+                        String namespace = getNextArgRequired();
+                        String key = getNextArgRequired();
+                        String value = getNextArgRequired();
+                        String option = getNextArg();
+                        if (option != null && !"default".equals(option)) {
+                            throw new IllegalArgumentException("Invalid put option: " + option);
+                        }
+                        if (getNextArg() != null) {
+                            throw new IllegalArgumentException("Too many arguments for put");
+                        }
+                        if (option != null) {
+                            // the database does not keep default values yet
+                            getErrPrintWriter().println(
+                                    "Error: put default is not supported yet");
+                            return -1;
+                        }
+                        return put(namespace, key, value);
+                    }
+                    case "delete":
+                        return delete(getNextArgRequired(), getNextArgRequired());
+                    case "list":
+                        return list(getNextArg());
+                    case "reset": {
+                        String mode = getNextArgRequired();
+                        return reset(mode, getNextArg());
+                    }
+                    case "set_sync_disabled_for_tests":
+                        return setSyncDisabledForTests(getNextArgRequired());
+                    case "get_sync_disabled_for_tests":
+                        return getSyncDisabledForTests();
+                    case "put-batch":
+                        return putBatch();
+                    case "dump":
+                        return dumpSnapshot();
+                    case "import":
+                        return importSnapshot();
+                    case "snapshot":
+                        return createSnapshot();
+                    case "rollback":
+                        return rollback(getNextArgRequired());
+                    case "list-snapshots":
+                        return listSnapshots();
+                    default:
+                        return handleDefaultCommands(cmd);
+                }
+            } catch (IllegalArgumentException | IOException e) {
+                getErrPrintWriter().println("Error: " + e.getMessage());
+                return -1;
+            }
+        }
+
+        private int get(String namespace, String key) {
+            if (!checkPermission(READ_DEVICE_CONFIG)) {
+                return -1;
+            }
+            String value = mDbAdapter.getValuesForNamespace(namespace, key).get(key);
+            getOutPrintWriter().println(value == null ? "null" : value);
+            return 0;
+        }
+
+        private int put(String namespace, String key, String value) {
+            if (!checkWritePermission(namespace, key)) {
+                return -1;
+            }
+            return setValue(namespace, key, value, /* makeDefault= */ false) ? 0 : -1;
+        }
+
+        private int delete(String namespace, String key) {
+            if (!checkWritePermission(namespace, key)) {
+                return -1;
+            }
+            boolean deleted = deleteValue(namespace, key);
+            getOutPrintWriter().println(deleted
+                    ? "Successfully deleted " + key + " from " + namespace
+                    : "Failed to delete " + key + " from " + namespace);
+            return 0;
+        }
+
+        private int list(String namespace) {
+            if (!checkPermission(READ_DEVICE_CONFIG)) {
+                return -1;
+            }
+            PrintWriter pw = getOutPrintWriter();
+            if (namespace != null) {
+                Map<String, String> values =
+                        new TreeMap<>(mDbAdapter.getValuesForNamespace(namespace));
+                for (Map.Entry<String, String> entry : values.entrySet()) {
+                    pw.println(entry.getKey() + "=" + entry.getValue());
+                }
+                return 0;
+            }
+            for (Map.Entry<String, Map<String, String>> values
+                    : mDbAdapter.getAllValues().entrySet()) {
+                for (Map.Entry<String, String> entry : values.getValue().entrySet()) {
+                    pw.println(values.getKey() + "/" + entry.getKey() + "=" + entry.getValue());
+                }
+            }
+            return 0;
+        }
+
+        private int reset(String mode, String namespace) {
+            if (!"untrusted_defaults".equals(mode) && !"untrusted_clear".equals(mode)
+                    && !"trusted_defaults".equals(mode)) {
+                throw new IllegalArgumentException("Invalid reset mode: " + mode);
+            }
+            if (!"untrusted_clear".equals(mode)) {
+                // the defaults modes restore default values, which the database does not keep
+                getErrPrintWriter().println("Error: reset " + mode
+                        + " is not supported yet; use untrusted_clear to delete the values");
+                return -1;
+            }
+            if (!checkPermission(WRITE_DEVICE_CONFIG)) {
+                return -1;
+            }
+            int count;
+            synchronized (mWriteLock) {
+                count = namespace == null
+                        ? mDbAdapter.deleteAll()
+                        : mDbAdapter.deleteNamespace(namespace);
+                // too many keys to journal one by one; clients resync instead
+                mJournal.clear();
+                if (namespace == null) {
+                    mSharedPages.invalidateAll();
+                } else {
+                    mSharedPages.invalidate(namespace);
+                }
+            }
+            getOutPrintWriter().println("Reset " + count + " values");
+            return 0;
+        }
+
+        private int setSyncDisabledForTests(String mode) {
+            int syncDisabledMode;
+            switch (mode) {
+                case "none":
+                    syncDisabledMode = DeviceConfig.SYNC_DISABLED_MODE_NONE;
+                    break;
+                case "persistent":
+                    syncDisabledMode = DeviceConfig.SYNC_DISABLED_MODE_PERSISTENT;
+                    break;
+                case "until_reboot":
+                    syncDisabledMode = DeviceConfig.SYNC_DISABLED_MODE_UNTIL_REBOOT;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid sync disabled mode: " + mode);
+            }
+            if (!checkPermission(WRITE_DEVICE_CONFIG, READ_WRITE_SYNC_DISABLED_MODE_CONFIG)) {
+                return -1;
+            }
+            setSyncDisabledMode(syncDisabledMode);
+            return 0;
+        }
+
+        private int getSyncDisabledForTests() {
+            if (!checkPermission(WRITE_DEVICE_CONFIG, READ_WRITE_SYNC_DISABLED_MODE_CONFIG)) {
+                return -1;
+            }
+            switch (mSyncDisabledMode) {
+                case DeviceConfig.SYNC_DISABLED_MODE_PERSISTENT:
+                    getOutPrintWriter().println("persistent");
+                    break;
+                case DeviceConfig.SYNC_DISABLED_MODE_UNTIL_REBOOT:
+                    getOutPrintWriter().println("until_reboot");
+                    break;
+                default:
+                    getOutPrintWriter().println("none");
+                    break;
+            }
+            return 0;
+        }
+
+        /** Applies every line of the input in one transaction, or none if a line is invalid. */
+        private int putBatch() throws IOException {
+            // not closed: the descriptor belongs to the caller
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(getInFileDescriptor()), StandardCharsets.UTF_8));
+            Map<String, Map<String, String>> values = parseBatch(reader);
+            if (!checkPermission(WRITE_DEVICE_CONFIG)) {
+                for (Map.Entry<String, Map<String, String>> namespace : values.entrySet()) {
+                    for (String key : namespace.getValue().keySet()) {
+                        if (!checkWritePermission(namespace.getKey(), key)) {
+                            return -1;
+                        }
+                    }
+                }
+            }
+            int count = 0;
+            for (Map<String, String> namespace : values.values()) {
+                count += namespace.size();
+            }
+            if (!setValues(values)) {
+                getErrPrintWriter().println("Error: failed to write " + count + " values");
+                return -1;
+            }
+            getOutPrintWriter().println("Wrote " + count + " values");
+            return 0;
+        }
+
+        /** Streams every value to the output, in one of the {@link ConfigSnapshot} formats. */
+        private int dumpSnapshot() throws IOException {
+            String format = ConfigSnapshot.FORMAT_NDJSON;
+            String option;
+            while ((option = getNextOption()) != null) {
+                if (option.startsWith("--format=")) {
+                    format = option.substring("--format=".length());
+                } else if (option.equals("--format")) {
+                    format = getNextArgRequired();
+                } else {
+                    throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            }
+            if (!ConfigSnapshot.isFormat(format)) {
+                throw new IllegalArgumentException("Invalid format: " + format);
+            }
+            if (!checkPermission(READ_DEVICE_CONFIG)) {
+                return -1;
+            }
+            // not closed: the descriptor belongs to the caller
+            FileOutputStream out = new FileOutputStream(getOutFileDescriptor());
+            ConfigSnapshot.write(mDbAdapter, format, out);
+            return 0;
+        }
+
+        /** Applies a snapshot from the input, in one of the {@link ConfigSnapshot} formats. */
+        private int importSnapshot() throws IOException {
+            String format = ConfigSnapshot.FORMAT_NDJSON;
+            boolean replace = false;
+            String option;
+            while ((option = getNextOption()) != null) {
+                if (option.startsWith("--format=")) {
+                    format = option.substring("--format=".length());
+                } else if (option.equals("--format")) {
+                    format = getNextArgRequired();
+                } else if (option.equals("--replace")) {
+                    replace = true;
+                } else {
+                    throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            }
+            if (!ConfigSnapshot.isFormat(format)) {
+                throw new IllegalArgumentException("Invalid format: " + format);
+            }
+            if (!checkPermission(WRITE_DEVICE_CONFIG)) {
+                return -1;
+            }
+            // not closed: the descriptor belongs to the caller
+            Map<String, Map<String, String>> values = ConfigSnapshot.read(format,
+                    new FileInputStream(getInFileDescriptor()));
+            int count = importValues(values, replace);
+            if (count < 0) {
+                getErrPrintWriter().println("Error: failed to import the snapshot");
+                return -1;
+            }
+            getOutPrintWriter().println("Changed " + count + " values");
+            return 0;
+        }
+
+        private int createSnapshot() {
+            if (!checkPermission(WRITE_DEVICE_CONFIG)) {
+                return -1;
+            }
+            long id = mDbAdapter.createSnapshot(System.currentTimeMillis());
+            if (id < 0) {
+                getErrPrintWriter().println("Error: failed to create a snapshot");
+                return -1;
+            }
+            getOutPrintWriter().println(id);
+            return 0;
+        }
+
+        private int rollback(String snapshotId) {
+            long id;
+            try {
+                id = Long.parseLong(snapshotId);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid snapshot id: " + snapshotId);
+            }
+            if (!checkPermission(WRITE_DEVICE_CONFIG)) {
+                return -1;
+            }
+            Map<String, Set<String>> changed;
+            synchronized (mWriteLock) {
+                changed = mDbAdapter.rollbackToSnapshot(id);
+                if (changed != null) {
+                    onValuesChanged(changed);
+                }
+            }
+            if (changed == null) {
+                getErrPrintWriter().println("Error: no snapshot " + id);
+                return -1;
+            }
+            int count = mChangeNotifier.notifyChanged(changed);
+            getOutPrintWriter().println("Changed " + count + " values");
+            return 0;
+        }
+
+        private int listSnapshots() {
+            if (!checkPermission(READ_DEVICE_CONFIG)) {
+                return -1;
+            }
+            PrintWriter pw = getOutPrintWriter();
+            for (DeviceConfigDbAdapter.SnapshotInfo snapshot : mDbAdapter.getSnapshots()) {
+                pw.println("id=" + snapshot.id
+                        + " created=" + Instant.ofEpochMilli(snapshot.createdMillis)
+                        + " values=" + snapshot.valueCount);
+            }
+            return 0;
+        }
+
+        /** Returns whether the caller holds any of the permissions, printing an error if not. */
+        private boolean checkPermission(String... permissions) {
+            for (String permission : permissions) {
+                if (mContext.checkCallingOrSelfPermission(permission)
+                        == PackageManager.PERMISSION_GRANTED) {
+                    return true;
+                }
+            }
+            getErrPrintWriter().println("Permission denial: requires "
+                    + String.join(" or ", permissions));
+            return false;
+        }
+
+        /**
+         * Returns whether the caller can write the flag: any flag with WRITE_DEVICE_CONFIG, or
+         * the adb writable flags with WRITE_ALLOWLISTED_DEVICE_CONFIG.
+         */
+        private boolean checkWritePermission(String namespace, String key) {
+            if (mContext.checkCallingOrSelfPermission(WRITE_DEVICE_CONFIG)
+                    == PackageManager.PERMISSION_GRANTED) {
+                return true;
+            }
+            if (mContext.checkCallingOrSelfPermission(WRITE_ALLOWLISTED_DEVICE_CONFIG)
+                    == PackageManager.PERMISSION_GRANTED
+                    && DeviceConfig.isAdbWritableFlag(namespace, key)) {
+                return true;
+            }
+            getErrPrintWriter().println("Permission denial: " + namespace + "/" + key
+                    + " requires " + WRITE_DEVICE_CONFIG + ", or "
+                    + WRITE_ALLOWLISTED_DEVICE_CONFIG + " for allowlisted flags");
+            return false;
         }
 
         @Override
         public void onHelp() {
             PrintWriter pw = getOutPrintWriter();
             pw.println("Device Config implemented in mainline");
+            pw.println("  help");
+            pw.println("      Print this help text.");
+            pw.println("  get NAMESPACE KEY");
+            pw.println("      Retrieve the current value of KEY from the given NAMESPACE.");
+            pw.println("  put NAMESPACE KEY VALUE [default]");
+            pw.println("      Change the contents of KEY to VALUE for the given NAMESPACE.");
+            pw.println("      default is not supported yet: default values are not kept.");
+            pw.println("  delete NAMESPACE KEY");
+            pw.println("      Delete the entry for KEY for the given NAMESPACE.");
+            pw.println("  list [NAMESPACE]");
+            pw.println("      Print all keys and values defined, optionally for the given "
+                    + "NAMESPACE.");
+            pw.println("  put-batch");
+            pw.println("      Read NAMESPACE/KEY=VALUE lines from stdin and write them in a");
+            pw.println("      single transaction. Blank lines and lines starting with # are");
+            pw.println("      skipped. VALUE is the rest of the line, quotes included. If any");
+            pw.println("      line is malformed, nothing is written.");
+            pw.println("  dump [--format=ndjson|proto]");
+            pw.println("      Stream every value to stdout: one JSON object per flag and line, or");
+            pw.println("      one length-delimited NamespaceSnapshot proto per namespace.");
+            pw.println("  import [--format=ndjson|proto] [--replace]");
+            pw.println("      Apply a snapshot written by dump from stdin, in a single");
+            pw.println("      transaction. With --replace, values that are not in the snapshot");
+            pw.println("      are deleted; otherwise they are kept.");
+            pw.println("  snapshot");
+            pw.println("      Save a copy of every value, and print its id. Only the newest "
+                    + DeviceConfigDbAdapter.MAX_SNAPSHOTS);
+            pw.println("      snapshots are kept.");
+            pw.println("  rollback SNAPSHOT_ID");
+            pw.println("      Replace every value with those of the snapshot.");
+            pw.println("  list-snapshots");
+            pw.println("      Print the id, creation time and number of values of each snapshot.");
+            pw.println("  reset RESET_MODE [NAMESPACE]");
+            pw.println("      Reset all flag values, optionally for a NAMESPACE. RESET_MODE is");
+            pw.println("      one of {untrusted_defaults, untrusted_clear, trusted_defaults}.");
+            pw.println("      Only untrusted_clear, which deletes the values, is supported yet:");
+            pw.println("      default values are not kept, so the other modes are rejected.");
+            pw.println("  set_sync_disabled_for_tests SYNC_DISABLED_MODE");
+            pw.println("      Rejects bulk property updates, so tests are not overwritten by");
+            pw.println("      syncs. SYNC_DISABLED_MODE is one of:");
+            pw.println("        none: Sync is not disabled.");
+            pw.println("        persistent: Sync is disabled, this state will survive a reboot.");
+            pw.println("        until_reboot: Sync is disabled until the next reboot.");
+            pw.println("  get_sync_disabled_for_tests");
+            pw.println("      Prints one of the SYNC_DISABLED_MODE values, see");
+            pw.println("      set_sync_disabled_for_tests");
         }
     }
 }
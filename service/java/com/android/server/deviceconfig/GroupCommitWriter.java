@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import android.annotation.NonNull;
+import android.annotation.Nullable;
+import android.util.Slog;
+
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies queued writes on a background thread, committing all the writes queued while the
+ * previous batch was being written in one transaction, so their cost is shared.
+ *
+ * <p>Writes are committed in the order they were queued; a later value of a flag replaces an
+ * earlier one of the same batch. Each write's callback is told whether its batch was committed.
+ *
+ * @hide
+ */
+final class GroupCommitWriter {
+    private static final String TAG = "GroupCommitWriter";
+    private static final String THREAD_NAME = "DeviceConfigWriter";
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    /** Caps the values of a batch, so one transaction does not hold the database for long. */
+    static final int MAX_BATCH_VALUES = 2048;
+
+    /**
+     * Caps the writes waiting for a batch, so callers that write faster than the database commits
+     * cannot grow system_server's heap without limit.
+     */
+    static final int MAX_PENDING_WRITES = 1024;
+
+    /** Writes a batch, by namespace and then key. */
+    interface Committer {
+        boolean commit(@NonNull Map<String, Map<String, String>> values);
+    }
+
+    /** Told whether the batch holding a write was committed. */
+    interface Callback {
+        void onCommitted(boolean success);
+    }
+
+    private final Committer mCommitter;
+    private final Executor mExecutor;
+
+    // all guarded by this
+    private final ArrayDeque<Write> mPending = new ArrayDeque<>();
+    private boolean mScheduled;
+    private long mBatches;
+    private long mWrites;
+    private long mFailedBatches;
+    private long mRejectedWrites;
+    private int mMaxBatchWrites;
+    private long mTotalCommitNanos;
+    private long mMaxCommitNanos;
+
+    GroupCommitWriter(@NonNull Committer committer) {
+        this(committer, createExecutor());
+    }
+
+    GroupCommitWriter(@NonNull Committer committer, @NonNull Executor executor) {
+        mCommitter = committer;
+        mExecutor = executor;
+    }
+
+    private static Executor createExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> new Thread(runnable, THREAD_NAME));
+        // writes come in bursts; don't keep an idle thread around in system_server
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Queues {@code values} of {@code namespace} to be written with the next batch.
+     *
+     * @return {@code false} if too many writes are already pending; the write is then dropped and
+     *         {@code callback} is not called
+     */
+    boolean enqueue(@NonNull String namespace, @NonNull Map<String, String> values,
+            @Nullable Callback callback) {
+        synchronized (this) {
+            if (mPending.size() >= MAX_PENDING_WRITES) {
+                mRejectedWrites++;
+                return false;
+            }
+            mPending.add(new Write(namespace, values, callback));
+            if (mScheduled) {
+                return true;
+            }
+            mScheduled = true;
+        }
+        mExecutor.execute(this::commitPending);
+        return true;
+    }
+
+    /** Commits one batch, then schedules itself again if more writes are queued. */
+    private void commitPending() {
+        List<Write> batch = new ArrayList<>();
+        Map<String, Map<String, String>> values = new HashMap<>();
+        synchronized (this) {
+            int valueCount = 0;
+            while (!mPending.isEmpty() && (batch.isEmpty()
+                    || valueCount + mPending.peek().mValues.size() <= MAX_BATCH_VALUES)) {
+                Write write = mPending.poll();
+                batch.add(write);
+                valueCount += write.mValues.size();
+                values.computeIfAbsent(write.mNamespace, ns -> new HashMap<>())
+                        .putAll(write.mValues);
+            }
+        }
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            success = mCommitter.commit(values);
+        } catch (RuntimeException e) {
+            Slog.e(TAG, "Failed to commit " + batch.size() + " writes", e);
+        }
+        long commitNanos = System.nanoTime() - start;
+
+        for (Write write : batch) {
+            if (write.mCallback == null) {
+                continue;
+            }
+            try {
+                write.mCallback.onCommitted(success);
+            } catch (RuntimeException e) {
+                // keep going, or the writes queued behind this one would never be committed
+                Slog.e(TAG, "Write callback failed", e);
+            }
+        }
+
+        boolean more;
+        synchronized (this) {
+            mBatches++;
+            mWrites += batch.size();
+            if (!success) {
+                mFailedBatches++;
+            }
+            mMaxBatchWrites = Math.max(mMaxBatchWrites, batch.size());
+            mTotalCommitNanos += commitNanos;
+            mMaxCommitNanos = Math.max(mMaxCommitNanos, commitNanos);
+            more = !mPending.isEmpty();
+            mScheduled = more;
+        }
+        if (more) {
+            mExecutor.execute(this::commitPending);
+        }
+    }
+
+    synchronized void dump(@NonNull PrintWriter pw) {
+        pw.println("Async writer: pending=" + mPending.size()
+                + " batches=" + mBatches
+                + " writes=" + mWrites
+                + " failedBatches=" + mFailedBatches
+                + " rejectedWrites=" + mRejectedWrites
+                + " maxBatchWrites=" + mMaxBatchWrites
+                + " commitAvgUs=" + (mBatches == 0 ? 0 : mTotalCommitNanos / mBatches / 1000)
+                + " commitMaxUs=" + mMaxCommitNanos / 1000);
+    }
+
+    private static final class Write {
+        final String mNamespace;
+        final Map<String, String> mValues;
+        final Callback mCallback;
+
+        Write(String namespace, Map<String, String> values, Callback callback) {
+            mNamespace = namespace;
+            mValues = values;
+            mCallback = callback;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import android.annotation.NonNull;
+
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the module's DeviceConfig listeners on a small pool of its own threads.
+ *
+ * <p>Each namespace gets a serial {@link Executor} from {@link #forNamespace}: its callbacks run
+ * one at a time, in order, while callbacks for different namespaces can run in parallel. A
+ * namespace hands its thread back after every callback, so one busy namespace cannot hold up the
+ * others. Since a namespace has at most one entry in the pool's queue at a time, that queue is
+ * bounded by the number of namespaces.
+ *
+ * <p>For each namespace, the executor records the queue depth and how long callbacks waited and
+ * ran; see {@link #dump}.
+ *
+ * @hide
+ */
+final class ModuleCallbackExecutor {
+    private static final String THREAD_NAME = "DeviceConfigCallback";
+    private static final int THREAD_COUNT = 2;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final ThreadPoolExecutor mPool;
+    private final Map<String, NamespaceExecutor> mNamespaces = new ConcurrentHashMap<>();
+
+    /** Returns the executor shared by all of the module's listeners. */
+    @NonNull
+    static ModuleCallbackExecutor getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final ModuleCallbackExecutor INSTANCE =
+                new ModuleCallbackExecutor(THREAD_NAME, THREAD_COUNT);
+    }
+
+    ModuleCallbackExecutor(@NonNull String threadName, int threadCount) {
+        AtomicInteger threadId = new AtomicInteger();
+        mPool = new ThreadPoolExecutor(threadCount, threadCount,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> new Thread(runnable, threadName + "-" + threadId.incrementAndGet()));
+        // listeners fire rarely; don't keep idle threads around in system_server
+        mPool.allowCoreThreadTimeOut(true);
+    }
+
+    /** Returns the serial executor for callbacks about {@code namespace}. */
+    @NonNull
+    Executor forNamespace(@NonNull String namespace) {
+        return mNamespaces.computeIfAbsent(namespace, NamespaceExecutor::new);
+    }
+
+    /** Prints the queue depth and latency of each namespace's callbacks. */
+    void dump(@NonNull PrintWriter pw) {
+        pw.println("Callback executor: threads=" + mPool.getPoolSize()
+                + " active=" + mPool.getActiveCount()
+                + " queued=" + mPool.getQueue().size());
+        List<String> namespaces = new ArrayList<>(mNamespaces.keySet());
+        namespaces.sort(null);
+        for (String namespace : namespaces) {
+            pw.print("  ");
+            mNamespaces.get(namespace).dump(pw);
+        }
+    }
+
+    private static final class Task {
+        final Runnable mCommand;
+        final long mEnqueuedNanos;
+
+        Task(Runnable command, long enqueuedNanos) {
+            mCommand = command;
+            mEnqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    private final class NamespaceExecutor implements Executor, Runnable {
+        private final String mNamespace;
+
+        // all guarded by this
+        private final ArrayDeque<Task> mTasks = new ArrayDeque<>();
+        private boolean mScheduled;
+        private int mMaxDepth;
+        private long mCompleted;
+        private long mTotalWaitNanos;
+        private long mMaxWaitNanos;
+        private long mTotalRunNanos;
+        private long mMaxRunNanos;
+
+        NamespaceExecutor(String namespace) {
+            mNamespace = namespace;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            Objects.requireNonNull(command);
+            synchronized (this) {
+                mTasks.add(new Task(command, System.nanoTime()));
+                mMaxDepth = Math.max(mMaxDepth, mTasks.size());
+                if (mScheduled) {
+                    return;
+                }
+                mScheduled = true;
+            }
+            mPool.execute(this);
+        }
+
+        /** Runs the oldest callback, then requeues itself on the pool if there are more. */
+        @Override
+        public void run() {
+            Task task;
+            synchronized (this) {
+                task = mTasks.poll();
+            }
+            long start = System.nanoTime();
+            try {
+                task.mCommand.run();
+            } finally {
+                long end = System.nanoTime();
+                boolean more;
+                synchronized (this) {
+                    long wait = start - task.mEnqueuedNanos;
+                    long run = end - start;
+                    mCompleted++;
+                    mTotalWaitNanos += wait;
+                    mMaxWaitNanos = Math.max(mMaxWaitNanos, wait);
+                    mTotalRunNanos += run;
+                    mMaxRunNanos = Math.max(mMaxRunNanos, run);
+                    more = !mTasks.isEmpty();
+                    mScheduled = more;
+                }
+                if (more) {
+                    mPool.execute(this);
+                }
+            }
+        }
+
+        synchronized void dump(PrintWriter pw) {
+            pw.println(mNamespace + ": pending=" + mTasks.size()
+                    + " maxPending=" + mMaxDepth
+                    + " completed=" + mCompleted
+                    + " waitAvgMs=" + formatMillis(average(mTotalWaitNanos))
+                    + " waitMaxMs=" + formatMillis(mMaxWaitNanos)
+                    + " runAvgMs=" + formatMillis(average(mTotalRunNanos))
+                    + " runMaxMs=" + formatMillis(mMaxRunNanos));
+        }
+
+        private long average(long totalNanos) {
+            return mCompleted == 0 ? 0 : totalNanos / mCompleted;
+        }
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import android.annotation.NonNull;
+import android.content.ApexEnvironment;
+
+import java.io.File;
+
+/**
+ * Locates the files this module keeps in its device protected apex data directory.
+ *
+ * @hide
+ */
+final class ServiceDataFiles {
+    private static final String APEX_NAME = "com.android.configinfrastructure";
+
+    private ServiceDataFiles() {
+        // do not instantiate
+    }
+
+    /**
+     * Returns the file with the given name in {@code /data/misc/apexdata/<apex>}. The directory is
+     * created by apexd and is available from the start of system_server.
+     */
+    @NonNull
+    static File getFile(@NonNull String name) {
+        return new File(
+                ApexEnvironment.getApexEnvironment(APEX_NAME).getDeviceProtectedDataDir(), name);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import android.annotation.NonNull;
+import android.annotation.Nullable;
+import android.os.SharedMemory;
+import android.provider.NamespaceRegistry;
+import android.provider.SharedConfigGenerations;
+import android.provider.SharedConfigPage;
+import android.system.ErrnoException;
+import android.system.OsConstants;
+import android.util.Slog;
+
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Publishes the values of each namespace as a read-only {@link SharedConfigPage} in shared
+ * memory, so that clients can read flags without a binder call per read.
+ *
+ * <p>A page is built from the database the first time a client asks for it, and is never
+ * modified: a change to the namespace drops the page and increments the namespace's slot in the
+ * {@link SharedConfigGenerations} table, which clients map once and check before each read. Only
+ * the namespaces of {@link NamespaceRegistry} are shared; clients read the others through binder.
+ *
+ * <p>The service keeps the only writable mapping of the table; what it hands out is protected to
+ * be read-only, so clients cannot map it writable.
+ *
+ * @hide
+ */
+final class SharedConfigPages {
+    private static final String TAG = "SharedConfigPages";
+
+    private final Function<String, Map<String, String>> mReader;
+
+    // all guarded by this
+    private boolean mUnavailable;
+    private SharedMemory mGenerationMemory;
+    private ByteBuffer mGenerationMapping;
+    private SharedConfigGenerations mGenerations;
+    private final SharedMemory[] mPages = new SharedMemory[NamespaceRegistry.size()];
+    private long mPagesBuilt;
+
+    /**
+     * @param reader reads every value of a namespace
+     */
+    SharedConfigPages(@NonNull Function<String, Map<String, String>> reader) {
+        mReader = reader;
+    }
+
+    /**
+     * Returns a read-only region holding the generation table, or {@code null} if shared memory
+     * is not available.
+     */
+    @Nullable
+    synchronized SharedMemory getGenerationTable() {
+        return ensureGenerationTableLocked() ? mGenerationMemory : null;
+    }
+
+    /**
+     * Returns a read-only region holding the page of {@code namespace}, or {@code null} if the
+     * namespace is not shared or shared memory is not available.
+     */
+    @Nullable
+    synchronized SharedMemory getPage(@NonNull String namespace) {
+        int id = NamespaceRegistry.getId(namespace);
+        if (id == NamespaceRegistry.UNKNOWN_ID) {
+            return null;
+        }
+        if (!ensureGenerationTableLocked()) {
+            return null;
+        }
+        if (mPages[id] == null) {
+            SharedConfigPage.Encoder page = new SharedConfigPage.Encoder(mReader.apply(namespace));
+            SharedMemory memory = null;
+            ByteBuffer mapping = null;
+            try {
+                memory = SharedMemory.create("DeviceConfig:" + namespace, page.getSize());
+                mapping = memory.mapReadWrite();
+                page.writeTo(mapping, mGenerations.get(id));
+                memory.setProtect(OsConstants.PROT_READ);
+            } catch (ErrnoException e) {
+                Slog.w(TAG, "Failed to share namespace " + namespace, e);
+                if (memory != null) {
+                    memory.close();
+                }
+                return null;
+            } finally {
+                if (mapping != null) {
+                    SharedMemory.unmap(mapping);
+                }
+            }
+            mPages[id] = memory;
+            mPagesBuilt++;
+        }
+        return mPages[id];
+    }
+
+    /** Drops the page of {@code namespace}, after its values changed in the database. */
+    synchronized void invalidate(@NonNull String namespace) {
+        int id = NamespaceRegistry.getId(namespace);
+        if (id != NamespaceRegistry.UNKNOWN_ID) {
+            invalidateLocked(id);
+        }
+    }
+
+    /** Drops every page. */
+    synchronized void invalidateAll() {
+        for (int id = 0; id < mPages.length; id++) {
+            invalidateLocked(id);
+        }
+    }
+
+    private void invalidateLocked(int id) {
+        if (mGenerations != null) {
+            mGenerations.increment(id);
+        }
+        // not closed: a reply may still be writing the page to a parcel. The descriptor is
+        // closed once the page is collected; clients keep their own descriptors and mappings.
+        mPages[id] = null;
+    }
+
+    private boolean ensureGenerationTableLocked() {
+        if (mGenerations != null || mUnavailable) {
+            return mGenerations != null;
+        }
+        int slots = NamespaceRegistry.size();
+        try {
+            mGenerationMemory = SharedMemory.create("DeviceConfig:generations",
+                    SharedConfigGenerations.computeSize(slots));
+            // kept for the service's writes; later mappings can only be read-only
+            mGenerationMapping = mGenerationMemory.mapReadWrite();
+            mGenerations = SharedConfigGenerations.create(mGenerationMapping, slots);
+            mGenerationMemory.setProtect(OsConstants.PROT_READ);
+            return true;
+        } catch (ErrnoException e) {
+            Slog.w(TAG, "Failed to create the generation table, not sharing namespaces", e);
+            if (mGenerationMapping != null) {
+                SharedMemory.unmap(mGenerationMapping);
+                mGenerationMapping = null;
+            }
+            if (mGenerationMemory != null) {
+                mGenerationMemory.close();
+                mGenerationMemory = null;
+            }
+            mGenerations = null;
+            mUnavailable = true;
+            return false;
+        }
+    }
+
+    synchronized void dump(@NonNull PrintWriter pw) {
+        int shared = 0;
+        for (SharedMemory page : mPages) {
+            if (page != null) {
+                shared++;
+            }
+        }
+        pw.println("Shared pages: current=" + shared + " built=" + mPagesBuilt);
+    }
+}
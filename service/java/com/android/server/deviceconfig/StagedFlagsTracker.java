@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import android.annotation.NonNull;
+import android.util.AtomicFile;
+import android.util.Slog;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tracks the aconfig flags that are staged but not yet applied, that is, those that need a reboot
+ * to take effect.
+ *
+ * <p>Flags are kept by their key in the {@code staged} namespace ({@code <namespace>*<flag>}), and
+ * the set is updated from each change to that namespace rather than by reading it again. The set
+ * is persisted so it survives a system_server restart; after a reboot, {@link #compact} drops the
+ * flags that have since been applied.
+ *
+ * @hide
+ */
+final class StagedFlagsTracker {
+    private static final String TAG = "StagedFlagsTracker";
+
+    static final String FILE_NAME = "staged_flags_pending";
+
+    private final File mFile;
+
+    private final Object mLock = new Object();
+    private boolean mLoaded;
+    private final Set<String> mPending = new HashSet<>();
+    private final Map<String, Integer> mPendingPerNamespace = new HashMap<>();
+
+    StagedFlagsTracker() {
+        this(ServiceDataFiles.getFile(FILE_NAME));
+    }
+
+    StagedFlagsTracker(@NonNull File file) {
+        mFile = file;
+    }
+
+    /**
+     * Records a change to a key of the {@code staged} namespace.
+     *
+     * @param stagedKey key of the form {@code <namespace>*<flag>}
+     * @param staged whether the flag now has a staged value, {@code false} if it was removed
+     * @return whether the set of pending flags changed
+     */
+    boolean update(@NonNull String stagedKey, boolean staged) {
+        synchronized (mLock) {
+            ensureLoadedLocked();
+            return staged ? addLocked(stagedKey) : removeLocked(stagedKey);
+        }
+    }
+
+    /** Persists the pending flags, after a batch of {@link #update} calls changed them. */
+    void persist() {
+        synchronized (mLock) {
+            ensureLoadedLocked();
+            writeLocked();
+        }
+    }
+
+    /**
+     * Drops every pending flag whose key is no longer in the {@code staged} namespace, which after
+     * a reboot is every flag that was applied.
+     *
+     * @param stagedKeys the keys currently in the {@code staged} namespace
+     */
+    void compact(@NonNull Collection<String> stagedKeys) {
+        synchronized (mLock) {
+            ensureLoadedLocked();
+            boolean changed = false;
+            for (Iterator<String> it = mPending.iterator(); it.hasNext(); ) {
+                String key = it.next();
+                if (!stagedKeys.contains(key)) {
+                    it.remove();
+                    decrementNamespaceLocked(key);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                writeLocked();
+            }
+        }
+    }
+
+    /** Returns whether any flag is waiting for a reboot. */
+    boolean hasPending() {
+        synchronized (mLock) {
+            ensureLoadedLocked();
+            return !mPending.isEmpty();
+        }
+    }
+
+    /** Returns the number of flags waiting for a reboot. */
+    int getPendingCount() {
+        synchronized (mLock) {
+            ensureLoadedLocked();
+            return mPending.size();
+        }
+    }
+
+    /** Returns the number of flags of {@code namespace} waiting for a reboot. */
+    int getPendingCount(@NonNull String namespace) {
+        synchronized (mLock) {
+            ensureLoadedLocked();
+            Integer count = mPendingPerNamespace.get(namespace);
+            return count == null ? 0 : count;
+        }
+    }
+
+    private boolean addLocked(String key) {
+        if (!mPending.add(key)) {
+            return false;
+        }
+        mPendingPerNamespace.merge(namespaceOf(key), 1, Integer::sum);
+        return true;
+    }
+
+    private boolean removeLocked(String key) {
+        if (!mPending.remove(key)) {
+            return false;
+        }
+        decrementNamespaceLocked(key);
+        return true;
+    }
+
+    private void decrementNamespaceLocked(String key) {
+        mPendingPerNamespace.computeIfPresent(
+                namespaceOf(key), (namespace, count) -> count == 1 ? null : count - 1);
+    }
+
+    private static String namespaceOf(String key) {
+        return key.substring(0, key.indexOf('*'));
+    }
+
+    private void ensureLoadedLocked() {
+        if (mLoaded) {
+            return;
+        }
+        mLoaded = true;
+        try (FileInputStream in = new AtomicFile(mFile).openRead();
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.indexOf('*') > 0) {
+                    addLocked(line);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            // nothing staged yet
+        } catch (IOException e) {
+            Slog.w(TAG, "Ignoring unreadable record of staged flags", e);
+            mPending.clear();
+            mPendingPerNamespace.clear();
+        }
+    }
+
+    private void writeLocked() {
+        AtomicFile file = new AtomicFile(mFile);
+        FileOutputStream out = null;
+        try {
+            out = file.startWrite();
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            for (String key : mPending) {
+                writer.write(key);
+                writer.write('\n');
+            }
+            writer.flush();
+            file.finishWrite(out);
+        } catch (IOException e) {
+            Slog.w(TAG, "Failed to record staged flags", e);
+            file.failWrite(out);
+        }
+    }
+}
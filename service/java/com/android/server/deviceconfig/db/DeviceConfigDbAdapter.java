@@ -18,19 +18,70 @@ package com.android.server.deviceconfig.db;
 
 import android.content.ContentValues;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
-import android.text.TextUtils;
 
 import com.android.server.deviceconfig.db.DeviceConfigDbHelper.Contract.DeviceConfigEntry;
+import com.android.server.deviceconfig.db.DeviceConfigDbHelper.Contract.SnapshotEntry;
+import com.android.server.deviceconfig.db.DeviceConfigDbHelper.Contract.SnapshotValueEntry;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * @hide
  */
 public class DeviceConfigDbAdapter {
 
+    /** Keys per query, well below SQLite's limit of 999 bound arguments. */
+    private static final int MAX_KEYS_PER_QUERY = 500;
+
+    /** Snapshots kept by {@link #createSnapshot}; older ones are deleted. */
+    public static final int MAX_SNAPSHOTS = 8;
+
+    private static final String CONFIG_COLUMNS = DeviceConfigEntry.COLUMN_NAME_NAMESPACE + ", "
+            + DeviceConfigEntry.COLUMN_NAME_KEY + ", " + DeviceConfigEntry.COLUMN_NAME_VALUE;
+
+    private static final String SNAPSHOT_COLUMNS = SnapshotValueEntry.COLUMN_NAME_NAMESPACE + ", "
+            + SnapshotValueEntry.COLUMN_NAME_KEY + ", " + SnapshotValueEntry.COLUMN_NAME_VALUE;
+
+    private static final String SELECT_SNAPSHOT_VALUES = "SELECT " + SNAPSHOT_COLUMNS
+            + " FROM " + SnapshotValueEntry.TABLE_NAME
+            + " WHERE " + SnapshotValueEntry.COLUMN_NAME_SNAPSHOT_ID + " = ?";
+
+    private static final String SELECT_CONFIG_VALUES = "SELECT " + CONFIG_COLUMNS
+            + " FROM " + DeviceConfigEntry.TABLE_NAME;
+
+    /** The namespace and key of each value that differs between config and a snapshot. */
+    private static final String SELECT_SNAPSHOT_DIFFERENCES =
+            "SELECT " + DeviceConfigEntry.COLUMN_NAME_NAMESPACE + ", "
+                    + DeviceConfigEntry.COLUMN_NAME_KEY
+                    + " FROM (" + SELECT_CONFIG_VALUES + " EXCEPT " + SELECT_SNAPSHOT_VALUES + ")"
+                    + " UNION SELECT " + SnapshotValueEntry.COLUMN_NAME_NAMESPACE + ", "
+                    + SnapshotValueEntry.COLUMN_NAME_KEY
+                    + " FROM (" + SELECT_SNAPSHOT_VALUES + " EXCEPT " + SELECT_CONFIG_VALUES + ")";
+
+    /** Describes a snapshot made by {@link #createSnapshot}. */
+    public static final class SnapshotInfo {
+        public final long id;
+        public final long createdMillis;
+        public final long valueCount;
+
+        SnapshotInfo(long id, long createdMillis, long valueCount) {
+            this.id = id;
+            this.createdMillis = createdMillis;
+            this.valueCount = valueCount;
+        }
+    }
+
     private final SQLiteDatabase mDb;
 
     public DeviceConfigDbAdapter(SQLiteDatabase db) {
@@ -38,43 +89,93 @@ public class DeviceConfigDbAdapter {
     }
 
     public Map<String, String> getValuesForNamespace(String namespace, String... keys) {
+        Map<String, String> map = new HashMap<>();
+        if (keys == null || keys.length == 0) {
+            queryValues(DeviceConfigEntry.COLUMN_NAME_NAMESPACE + " = ?",
+                    new String[]{namespace}, map);
+            return map;
+        }
+        for (int start = 0; start < keys.length; start += MAX_KEYS_PER_QUERY) {
+            int count = Math.min(MAX_KEYS_PER_QUERY, keys.length - start);
+            StringBuilder selection = new StringBuilder()
+                    .append(DeviceConfigEntry.COLUMN_NAME_NAMESPACE).append(" = ? and ")
+                    .append(DeviceConfigEntry.COLUMN_NAME_KEY).append(" in (?");
+            for (int i = 1; i < count; i++) {
+                selection.append(",?");
+            }
+            selection.append(')');
+            String[] selectionArgs = new String[count + 1];
+            selectionArgs[0] = namespace;
+            System.arraycopy(keys, start, selectionArgs, 1, count);
+            queryValues(selection.toString(), selectionArgs, map);
+        }
+        return map;
+    }
+
+    /**
+     * Returns every value, by namespace and then key, both sorted.
+     */
+    public Map<String, Map<String, String>> getAllValues() {
+        Map<String, Map<String, String>> values = new TreeMap<>();
+        try {
+            forEachValue((namespace, key, value) ->
+                    values.computeIfAbsent(namespace, ns -> new TreeMap<>()).put(key, value));
+        } catch (IOException e) {
+            // the visitor above does no I/O
+            throw new UncheckedIOException(e);
+        }
+        return values;
+    }
+
+    /**
+     * Receives the values read by {@link #forEachValue}.
+     */
+    public interface ValueVisitor {
+        void visit(String namespace, String key, String value) throws IOException;
+    }
+
+    /**
+     * Passes every value to the visitor, sorted by namespace and then key. Values are read one
+     * namespace at a time, and each namespace is visited only once it has been read, so the
+     * database is never held while the visitor runs, for example while it writes to a slow pipe.
+     * Each namespace is a consistent snapshot, but a write may land between two namespaces.
+     */
+    public void forEachValue(ValueVisitor visitor) throws IOException {
+        for (String namespace : getNamespaces()) {
+            Map<String, String> values = new TreeMap<>();
+            queryValues(DeviceConfigEntry.COLUMN_NAME_NAMESPACE + " = ?",
+                    new String[] {namespace}, values);
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                visitor.visit(namespace, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private List<String> getNamespaces() {
+        List<String> namespaces = new ArrayList<>();
+        String[] projection = {DeviceConfigEntry.COLUMN_NAME_NAMESPACE};
+        try (Cursor cursor = mDb.query(true, DeviceConfigEntry.TABLE_NAME, projection,
+                null, null, null, null, DeviceConfigEntry.COLUMN_NAME_NAMESPACE, null)) {
+            while (cursor.moveToNext()) {
+                namespaces.add(cursor.getString(0));
+            }
+        }
+        return namespaces;
+    }
 
+    private void queryValues(String selection, String[] selectionArgs, Map<String, String> out) {
         String[] projection = {
                 DeviceConfigEntry.COLUMN_NAME_KEY,
                 DeviceConfigEntry.COLUMN_NAME_VALUE
         };
-
-        String selection;
-        String[] selectionArgs;
-        if (keys != null && keys.length > 0) {
-            selection = DeviceConfigEntry.COLUMN_NAME_NAMESPACE + " = ? "
-                    + "and " + DeviceConfigEntry.COLUMN_NAME_KEY + " in ( ? ) ";
-            String keySelection = TextUtils.join(",", keys);
-            selectionArgs = new String[]{namespace, keySelection};
-        } else {
-            selection = DeviceConfigEntry.COLUMN_NAME_NAMESPACE + " = ?";
-            selectionArgs = new String[]{namespace};
-        }
-        Cursor cursor = mDb.query(
-                DeviceConfigEntry.TABLE_NAME,
-                projection,
-                selection,
-                selectionArgs,
-                null,
-                null,
-                null
-        );
-
-        Map<String, String> map = new HashMap<>(cursor.getCount());
-        while (cursor.moveToNext()) {
-            String key = cursor.getString(
-                    cursor.getColumnIndexOrThrow(DeviceConfigEntry.COLUMN_NAME_KEY));
-            String value = cursor.getString(
-                    cursor.getColumnIndexOrThrow(DeviceConfigEntry.COLUMN_NAME_VALUE));
-            map.put(key, value);
-        }
-        cursor.close();
-        return map;
+        try (Cursor cursor = mDb.query(DeviceConfigEntry.TABLE_NAME, projection,
+                selection, selectionArgs, null, null, null)) {
+            int keyColumn = cursor.getColumnIndexOrThrow(DeviceConfigEntry.COLUMN_NAME_KEY);
+            int valueColumn = cursor.getColumnIndexOrThrow(DeviceConfigEntry.COLUMN_NAME_VALUE);
+            while (cursor.moveToNext()) {
+                out.put(cursor.getString(keyColumn), cursor.getString(valueColumn));
+            }
+        }
     }
 
     /**
@@ -89,7 +190,7 @@ public class DeviceConfigDbAdapter {
         values.put(DeviceConfigEntry.COLUMN_NAME_VALUE, value);
 
         String where = DeviceConfigEntry.COLUMN_NAME_NAMESPACE + " = ? "
-                + "and " + DeviceConfigEntry.COLUMN_NAME_VALUE + " = ? ";
+                + "and " + DeviceConfigEntry.COLUMN_NAME_KEY + " = ? ";
 
         String[] whereArgs = {namespace, key};
         int updatedRows = mDb.update(DeviceConfigEntry.TABLE_NAME, values, where, whereArgs);
@@ -113,15 +214,93 @@ public class DeviceConfigDbAdapter {
         boolean allSucceeded = true;
         try {
             mDb.beginTransaction();
-            for (Map.Entry<String, String> entry : map.entrySet()) {
-                // TODO(b/265948914) probably should call yieldIfContendedSafely in this loop
-                allSucceeded &= insertOrUpdateValue_inTransaction(namespace, entry.getKey(),
-                        entry.getValue());
+            allSucceeded = setValues_inTransaction(namespace, map);
+            mDb.setTransactionSuccessful();
+        } finally {
+            mDb.endTransaction();
+        }
+        return allSucceeded;
+    }
+
+    /**
+     * Set or update the values of several namespaces, in a single transaction.
+     *
+     * @param values the values to set, by namespace and then key
+     * @return true if all values were set. Returns true if the map is empty.
+     */
+    public boolean setValues(Map<String, Map<String, String>> values) {
+        if (values.size() == 0) {
+            return true;
+        }
+        boolean allSucceeded = true;
+        try {
+            mDb.beginTransaction();
+            for (Map.Entry<String, Map<String, String>> namespace : values.entrySet()) {
+                allSucceeded &= setValues_inTransaction(namespace.getKey(), namespace.getValue());
+            }
+            mDb.setTransactionSuccessful();
+        } finally {
+            mDb.endTransaction();
+        }
+        return allSucceeded;
+    }
+
+    /**
+     * Applies a snapshot in a single transaction, writing only the values that differ from the
+     * current ones.
+     *
+     * @param values the values to set, by namespace and then key
+     * @param replace whether to also delete every value that is not in {@code values}
+     * @return the keys that changed, by namespace, or null if a value could not be written, in
+     * which case nothing was changed
+     */
+    public Map<String, Set<String>> importValues(Map<String, Map<String, String>> values,
+            boolean replace) {
+        Map<String, Set<String>> changed = new HashMap<>();
+        try {
+            mDb.beginTransaction();
+            Map<String, Map<String, String>> current = getAllValues();
+            if (replace) {
+                for (Map.Entry<String, Map<String, String>> namespace : current.entrySet()) {
+                    Map<String, String> kept = values.getOrDefault(namespace.getKey(), Map.of());
+                    for (String key : namespace.getValue().keySet()) {
+                        if (!kept.containsKey(key)) {
+                            deleteValue(namespace.getKey(), key);
+                            changed.computeIfAbsent(namespace.getKey(), ns -> new HashSet<>())
+                                    .add(key);
+                        }
+                    }
+                }
+            }
+            for (Map.Entry<String, Map<String, String>> namespace : values.entrySet()) {
+                Map<String, String> old = current.getOrDefault(namespace.getKey(), Map.of());
+                for (Map.Entry<String, String> entry : namespace.getValue().entrySet()) {
+                    if (old.containsKey(entry.getKey())
+                            && Objects.equals(old.get(entry.getKey()), entry.getValue())) {
+                        continue;
+                    }
+                    if (!insertOrUpdateValue_inTransaction(namespace.getKey(), entry.getKey(),
+                            entry.getValue())) {
+                        return null;
+                    }
+                    changed.computeIfAbsent(namespace.getKey(), ns -> new HashSet<>())
+                            .add(entry.getKey());
+                }
             }
             mDb.setTransactionSuccessful();
         } finally {
             mDb.endTransaction();
         }
+        return changed;
+    }
+
+    private boolean setValues_inTransaction(String namespace, Map<String, String> map) {
+        boolean allSucceeded = true;
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            // TODO(b/265948914) probably should call yieldIfContendedSafely in this loop
+            allSucceeded &= insertOrUpdateValue_inTransaction(namespace, entry.getKey(),
+                    entry.getValue());
+        }
         return allSucceeded;
     }
 
@@ -147,4 +326,117 @@ public class DeviceConfigDbAdapter {
         int count = mDb.delete(DeviceConfigEntry.TABLE_NAME, where, whereArgs);
         return count > 0;
     }
+
+    /**
+     * Deletes every value of the namespace.
+     *
+     * @return the number of values deleted
+     */
+    public int deleteNamespace(String namespace) {
+        String where = DeviceConfigEntry.COLUMN_NAME_NAMESPACE + " = ? ";
+        String[] whereArgs = { namespace };
+        return mDb.delete(DeviceConfigEntry.TABLE_NAME, where, whereArgs);
+    }
+
+    /**
+     * Deletes every value of every namespace.
+     *
+     * @return the number of values deleted
+     */
+    public int deleteAll() {
+        // a where clause of "1" makes delete() return the number of rows
+        return mDb.delete(DeviceConfigEntry.TABLE_NAME, "1", null);
+    }
+
+    /**
+     * Copies every value into a new snapshot, with a single statement. Only the newest
+     * {@link #MAX_SNAPSHOTS} snapshots are kept.
+     *
+     * @return the id of the snapshot, to pass to {@link #rollbackToSnapshot}
+     */
+    public long createSnapshot(long createdMillis) {
+        try {
+            mDb.beginTransaction();
+            long valueCount = DatabaseUtils.queryNumEntries(mDb, DeviceConfigEntry.TABLE_NAME);
+            ContentValues snapshot = new ContentValues();
+            snapshot.put(SnapshotEntry.COLUMN_NAME_CREATED_MILLIS, createdMillis);
+            snapshot.put(SnapshotEntry.COLUMN_NAME_VALUE_COUNT, valueCount);
+            long id = mDb.insert(SnapshotEntry.TABLE_NAME, null, snapshot);
+            if (id == -1) {
+                return -1;
+            }
+            mDb.execSQL("INSERT INTO " + SnapshotValueEntry.TABLE_NAME + " ("
+                    + SnapshotValueEntry.COLUMN_NAME_SNAPSHOT_ID + ", " + SNAPSHOT_COLUMNS + ")"
+                    + " SELECT ?, " + CONFIG_COLUMNS + " FROM " + DeviceConfigEntry.TABLE_NAME,
+                    new Object[]{id});
+
+            // ids only grow, so everything below the oldest kept id is older
+            String oldestKept = "(SELECT MIN(" + SnapshotEntry._ID + ") FROM (SELECT "
+                    + SnapshotEntry._ID + " FROM " + SnapshotEntry.TABLE_NAME
+                    + " ORDER BY " + SnapshotEntry._ID + " DESC LIMIT " + MAX_SNAPSHOTS + "))";
+            mDb.delete(SnapshotValueEntry.TABLE_NAME,
+                    SnapshotValueEntry.COLUMN_NAME_SNAPSHOT_ID + " < " + oldestKept, null);
+            mDb.delete(SnapshotEntry.TABLE_NAME, SnapshotEntry._ID + " < " + oldestKept, null);
+            mDb.setTransactionSuccessful();
+            return id;
+        } finally {
+            mDb.endTransaction();
+        }
+    }
+
+    /**
+     * Returns the snapshots that can be rolled back to, oldest first.
+     */
+    public List<SnapshotInfo> getSnapshots() {
+        String[] projection = {
+                SnapshotEntry._ID,
+                SnapshotEntry.COLUMN_NAME_CREATED_MILLIS,
+                SnapshotEntry.COLUMN_NAME_VALUE_COUNT
+        };
+        List<SnapshotInfo> snapshots = new ArrayList<>();
+        try (Cursor cursor = mDb.query(SnapshotEntry.TABLE_NAME, projection,
+                null, null, null, null, SnapshotEntry._ID)) {
+            while (cursor.moveToNext()) {
+                snapshots.add(new SnapshotInfo(cursor.getLong(0), cursor.getLong(1),
+                        cursor.getLong(2)));
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Replaces every value with those of a snapshot. The changed keys are found and the values
+     * replaced with set-based statements, in a single transaction. The snapshot is kept, so it
+     * can be rolled back to again.
+     *
+     * @return the keys that changed, by namespace, or null if there is no such snapshot
+     */
+    public Map<String, Set<String>> rollbackToSnapshot(long snapshotId) {
+        String id = Long.toString(snapshotId);
+        Map<String, Set<String>> changed = new HashMap<>();
+        try {
+            mDb.beginTransaction();
+            if (DatabaseUtils.queryNumEntries(mDb, SnapshotEntry.TABLE_NAME,
+                    SnapshotEntry._ID + " = ?", new String[]{id}) == 0) {
+                return null;
+            }
+            try (Cursor cursor = mDb.rawQuery(SELECT_SNAPSHOT_DIFFERENCES,
+                    new String[]{id, id})) {
+                while (cursor.moveToNext()) {
+                    changed.computeIfAbsent(cursor.getString(0), ns -> new HashSet<>())
+                            .add(cursor.getString(1));
+                }
+            }
+            if (!changed.isEmpty()) {
+                deleteAll();
+                mDb.execSQL("INSERT INTO " + DeviceConfigEntry.TABLE_NAME
+                        + " (" + CONFIG_COLUMNS + ") " + SELECT_SNAPSHOT_VALUES,
+                        new Object[]{snapshotId});
+            }
+            mDb.setTransactionSuccessful();
+        } finally {
+            mDb.endTransaction();
+        }
+        return changed;
+    }
 }
@@ -25,7 +25,7 @@ import android.provider.BaseColumns;
  * @hide
  */
 public class DeviceConfigDbHelper extends SQLiteOpenHelper {
-    public static final int DATABASE_VERSION = 1;
+    public static final int DATABASE_VERSION = 2;
     public static final String DATABASE_NAME = "config_infrastructure.db";
 
     /**
@@ -58,6 +58,22 @@ public class DeviceConfigDbHelper extends SQLiteOpenHelper {
             public static final String COLUMN_NAME_KEY = "config_key";
             public static final String COLUMN_NAME_VALUE = "config_value";
         }
+
+        /** One row per snapshot of the config table. */
+        class SnapshotEntry implements BaseColumns {
+            public static final String TABLE_NAME = "config_snapshot";
+            public static final String COLUMN_NAME_CREATED_MILLIS = "created_millis";
+            public static final String COLUMN_NAME_VALUE_COUNT = "value_count";
+        }
+
+        /** The values of each snapshot, copied from the config table. */
+        class SnapshotValueEntry {
+            public static final String TABLE_NAME = "config_snapshot_value";
+            public static final String COLUMN_NAME_SNAPSHOT_ID = "snapshot_id";
+            public static final String COLUMN_NAME_NAMESPACE = "namespace";
+            public static final String COLUMN_NAME_KEY = "config_key";
+            public static final String COLUMN_NAME_VALUE = "config_value";
+        }
     }
 
     private static final String SQL_CREATE_ENTRIES =
@@ -67,6 +83,24 @@ public class DeviceConfigDbHelper extends SQLiteOpenHelper {
                     Contract.DeviceConfigEntry.COLUMN_NAME_KEY + " TEXT," +
                     Contract.DeviceConfigEntry.COLUMN_NAME_VALUE + " TEXT)";
 
+    private static final String SQL_CREATE_SNAPSHOTS =
+            "CREATE TABLE " + Contract.SnapshotEntry.TABLE_NAME + " (" +
+                    Contract.SnapshotEntry._ID + " INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    Contract.SnapshotEntry.COLUMN_NAME_CREATED_MILLIS + " INTEGER," +
+                    Contract.SnapshotEntry.COLUMN_NAME_VALUE_COUNT + " INTEGER)";
+
+    private static final String SQL_CREATE_SNAPSHOT_VALUES =
+            "CREATE TABLE " + Contract.SnapshotValueEntry.TABLE_NAME + " (" +
+                    Contract.SnapshotValueEntry.COLUMN_NAME_SNAPSHOT_ID + " INTEGER," +
+                    Contract.SnapshotValueEntry.COLUMN_NAME_NAMESPACE + " TEXT," +
+                    Contract.SnapshotValueEntry.COLUMN_NAME_KEY + " TEXT," +
+                    Contract.SnapshotValueEntry.COLUMN_NAME_VALUE + " TEXT)";
+
+    private static final String SQL_CREATE_SNAPSHOT_VALUES_INDEX =
+            "CREATE INDEX " + Contract.SnapshotValueEntry.TABLE_NAME + "_snapshot ON " +
+                    Contract.SnapshotValueEntry.TABLE_NAME + " (" +
+                    Contract.SnapshotValueEntry.COLUMN_NAME_SNAPSHOT_ID + ")";
+
     public DeviceConfigDbHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
     }
@@ -74,11 +108,20 @@ public class DeviceConfigDbHelper extends SQLiteOpenHelper {
     @Override
     public void onCreate(SQLiteDatabase db) {
         db.execSQL(SQL_CREATE_ENTRIES);
+        createSnapshotTables(db);
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        // no op for now
+        if (oldVersion < 2) {
+            createSnapshotTables(db);
+        }
+    }
+
+    private static void createSnapshotTables(SQLiteDatabase db) {
+        db.execSQL(SQL_CREATE_SNAPSHOTS);
+        db.execSQL(SQL_CREATE_SNAPSHOT_VALUES);
+        db.execSQL(SQL_CREATE_SNAPSHOT_VALUES_INDEX);
     }
 
 }
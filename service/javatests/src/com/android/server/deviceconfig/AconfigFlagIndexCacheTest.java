@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.runner.AndroidJUnit4;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class AconfigFlagIndexCacheTest {
+    private File mSource;
+    private File mMissingSource;
+    private File mCacheFile;
+
+    @Before
+    public void setUp() throws IOException {
+        File dir = InstrumentationRegistry.getInstrumentation().getTargetContext().getCacheDir();
+        mSource = new File(dir, "aconfig_flags_source.pb");
+        mMissingSource = new File(dir, "aconfig_flags_missing.pb");
+        mCacheFile = new File(dir, "aconfig_flag_index_test");
+        Files.write(mSource.toPath(), new byte[] {1, 2, 3});
+        mMissingSource.delete();
+        mCacheFile.delete();
+    }
+
+    @After
+    public void tearDown() {
+        mSource.delete();
+        mCacheFile.delete();
+    }
+
+    private AconfigFlagIndexCache newCache() {
+        return new AconfigFlagIndexCache(
+                mCacheFile, List.of(mSource.getPath(), mMissingSource.getPath()));
+    }
+
+    @Test
+    public void testReadsWrittenIndex() {
+        assertNull(newCache().read());
+
+        newCache().write(AconfigFlagIndex.fromKeys(List.of("a*flag", "b*flag")));
+        AconfigFlagIndex index = newCache().read();
+
+        assertEquals(2, index.size());
+        assertTrue(index.contains("a", "flag"));
+        assertTrue(index.contains("b", "flag"));
+        assertFalse(index.contains("c", "flag"));
+    }
+
+    @Test
+    public void testMissesWhenSourceChanges() throws IOException {
+        newCache().write(AconfigFlagIndex.fromKeys(List.of("a*flag")));
+        long lastModified = mSource.lastModified();
+
+        // same size and modification time, different contents
+        Files.write(mSource.toPath(), new byte[] {1, 2, 4});
+        mSource.setLastModified(lastModified);
+
+        assertNull(newCache().read());
+    }
+
+    @Test
+    public void testMissesWhenSourceAppears() throws IOException {
+        newCache().write(AconfigFlagIndex.fromKeys(List.of("a*flag")));
+        Files.write(mMissingSource.toPath(), new byte[] {1});
+        try {
+            assertNull(newCache().read());
+        } finally {
+            mMissingSource.delete();
+        }
+    }
+
+    @Test
+    public void testIgnoresCorruptFile() throws IOException {
+        newCache().write(AconfigFlagIndex.fromKeys(List.of("a*flag")));
+        byte[] contents = Files.readAllBytes(mCacheFile.toPath());
+        Files.write(mCacheFile.toPath(), Arrays.copyOf(contents, contents.length - 2));
+
+        assertNull(newCache().read());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.runner.AndroidJUnit4;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class AconfigFlagIndexTest {
+
+    @Test
+    public void testContains() {
+        AconfigFlagIndex index = AconfigFlagIndex.fromKeys(
+                List.of("b*flag", "a*flag_two", "a*flag", "a.b*flag", "a*flag"));
+
+        assertEquals(4, index.size());
+        assertTrue(index.contains("a", "flag"));
+        assertTrue(index.contains("a", "flag_two"));
+        assertTrue(index.contains("a.b", "flag"));
+        assertTrue(index.contains("b", "flag"));
+    }
+
+    @Test
+    public void testDoesNotMatchPrefixesOrOtherNamespaces() {
+        AconfigFlagIndex index = AconfigFlagIndex.fromKeys(List.of("a*flag_two", "ab*flag"));
+
+        assertFalse(index.contains("a", "flag"));
+        assertFalse(index.contains("a", "flag_two_three"));
+        assertFalse(index.contains("a", "b*flag"));
+        assertFalse(index.contains("b", "flag_two"));
+        assertFalse(index.contains("", ""));
+    }
+
+    @Test
+    public void testEmpty() {
+        AconfigFlagIndex index = AconfigFlagIndex.fromKeys(List.of());
+
+        assertEquals(0, index.size());
+        assertFalse(index.contains("a", "flag"));
+    }
+
+    @Test
+    public void testContainsRegion() {
+        AconfigFlagIndex index = AconfigFlagIndex.fromKeys(List.of("a*flag", "a*flag_two"));
+        StringBuilder key = new StringBuilder("xxa*flag_twoxx");
+
+        assertTrue(index.contains(key, 2, 10));
+        assertTrue(index.contains(key, 2, 6));
+        assertFalse(index.contains(key, 2, 5));
+        assertFalse(index.contains(key, 2, 11));
+        assertFalse(index.contains(key, 0, 0));
+    }
+}
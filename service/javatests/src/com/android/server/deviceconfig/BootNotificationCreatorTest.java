@@ -23,12 +23,12 @@ import android.provider.DeviceConfig;
 import android.provider.DeviceConfig.Properties;
 import androidx.test.platform.app.InstrumentationRegistry;
 import androidx.test.runner.AndroidJUnit4;
+import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.List;
 import org.junit.Test;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
@@ -49,6 +49,9 @@ public class BootNotificationCreatorTest {
     Context mockContext;
     AlarmManager mockAlarmManager;
 
+    File stagedFlagsFile;
+    StagedFlagsTracker stagedFlags;
+
     BootNotificationCreator bootNotificationCreator;
 
     @Before
@@ -65,11 +68,20 @@ public class BootNotificationCreatorTest {
             }
         };
 
-        Map<String, Set<String>> testAconfigFlags = new HashMap<>();
-        testAconfigFlags.put("test", new HashSet<>());
-        testAconfigFlags.get("test").add("flag");
+        AconfigFlagIndex testAconfigFlags = AconfigFlagIndex.fromKeys(List.of("test*flag"));
+
+        stagedFlagsFile = new File(getInstrumentation().getTargetContext().getCacheDir(),
+                "boot_notification_staged_flags");
+        stagedFlagsFile.delete();
+        stagedFlags = new StagedFlagsTracker(stagedFlagsFile);
+
+        bootNotificationCreator = new BootNotificationCreator(
+                mockContext, () -> testAconfigFlags, stagedFlags);
+    }
 
-        bootNotificationCreator = new BootNotificationCreator(mockContext, testAconfigFlags);
+    @After
+    public void tearDown() {
+        stagedFlagsFile.delete();
     }
 
     @Test
@@ -81,6 +93,19 @@ public class BootNotificationCreatorTest {
         bootNotificationCreator.onPropertiesChanged(properties);
 
         Mockito.verify(mockAlarmManager).setExact(anyInt(), anyLong(), any());
+        assertEquals(1, stagedFlags.getPendingCount("test"));
+    }
+
+    @Test
+    public void testNotificationNotScheduledWhenAconfigFlagUnstaged() {
+        HashMap<String, String> flags = new HashMap();
+        flags.put("test*flag", null);
+        Properties properties = new Properties("staged", flags);
+
+        bootNotificationCreator.onPropertiesChanged(properties);
+
+        Mockito.verify(mockAlarmManager, times(0)).setExact(anyInt(), anyLong(), any());
+        assertFalse(stagedFlags.hasPending());
     }
 
     @Test
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.runner.AndroidJUnit4;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class BootstrapValuesBarrierTest {
+    private static final long SHORT_TIMEOUT_MILLIS = 50;
+    private static final long LONG_TIMEOUT_MILLIS = 5000;
+
+    private final BootstrapValuesBarrier mBarrier = new BootstrapValuesBarrier();
+
+    @Test
+    public void testWaitsUntilParsed() throws Exception {
+        assertFalse(await("a", SHORT_TIMEOUT_MILLIS));
+
+        mBarrier.markParsed(List.of("b"));
+
+        assertTrue(await("a", SHORT_TIMEOUT_MILLIS));
+    }
+
+    @Test
+    public void testWaitsForPendingNamespace() throws Exception {
+        mBarrier.markParsed(List.of("a", "b"));
+        assertFalse(await("a", SHORT_TIMEOUT_MILLIS));
+
+        mBarrier.markNamespaceApplied("a");
+
+        assertTrue(await("a", SHORT_TIMEOUT_MILLIS));
+        assertFalse(await("b", SHORT_TIMEOUT_MILLIS));
+    }
+
+    @Test
+    public void testFinishReleasesEverything() throws Exception {
+        mBarrier.markParsed(List.of("a"));
+
+        mBarrier.markFinished();
+
+        assertTrue(await("a", SHORT_TIMEOUT_MILLIS));
+        assertTrue(await("other", SHORT_TIMEOUT_MILLIS));
+    }
+
+    @Test
+    public void testFinishWithoutParseReleasesEverything() throws Exception {
+        mBarrier.markFinished();
+
+        assertTrue(await("a", SHORT_TIMEOUT_MILLIS));
+    }
+
+    @Test
+    public void testReleasesWaitingReader() throws Exception {
+        mBarrier.markParsed(List.of("a"));
+        CountDownLatch released = new CountDownLatch(1);
+        Thread reader = new Thread(() -> {
+            try {
+                if (await("a", LONG_TIMEOUT_MILLIS)) {
+                    released.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        reader.start();
+        assertFalse(released.await(SHORT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+
+        mBarrier.markNamespaceApplied("a");
+
+        assertTrue(released.await(LONG_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        reader.join();
+    }
+
+    private boolean await(String namespace, long timeoutMillis) throws InterruptedException {
+        return mBarrier.awaitNamespace(namespace, timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.runner.AndroidJUnit4;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class BootstrapValuesParserTest {
+
+    private static BootstrapValuesParser.Table parse(String contents) {
+        return BootstrapValuesParser.parse(
+                ByteBuffer.wrap(contents.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testParsesAndGroupsByNamespace() {
+        BootstrapValuesParser.Table table = parse(
+                "a.a.a:b.b.b=enabled\nb.b.b:c.c=enabled\r\na.a.a:b.b=disabled\n\n");
+
+        assertEquals(3, table.size());
+        assertEquals(2, table.getNamespaceCount());
+        assertEquals("a.a.a", table.getNamespace(0));
+        assertEquals(0, table.getNamespaceStart(0));
+        assertEquals(2, table.getNamespaceEnd(0));
+        assertEquals("b.b.b", table.getKey(0));
+        assertEquals("true", table.getValue(0));
+        assertEquals("b.b", table.getKey(1));
+        assertEquals("false", table.getValue(1));
+        assertEquals("b.b.b", table.getNamespace(1));
+        assertEquals("c.c", table.getKey(2));
+        assertEquals("true", table.getValue(2));
+    }
+
+    @Test
+    public void testLastValueWinsInMap() {
+        Map<String, Map<String, String>> map =
+                parse("a:b=enabled\na:b=disabled\n").toMap();
+
+        assertEquals("false", map.get("a").get("b"));
+    }
+
+    @Test
+    public void testEmptyFile() {
+        assertEquals(0, parse("").size());
+    }
+
+    @Test
+    public void testRejectsMalformedLines() {
+        String[] malformed = {":b=enabled", "a:=enabled", "a:b=on", "a:b", "ab=enabled"};
+        for (String line : malformed) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> parse("a:ok=enabled\n" + line + "\n"));
+            assertTrue(e.getMessage(), e.getMessage().contains("line 2"));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.runner.AndroidJUnit4;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class CallerStatsTest {
+
+    private static String[] dump(CallerStats stats) {
+        StringWriter out = new StringWriter();
+        stats.dump(new PrintWriter(out, true));
+        return out.toString().split("\n");
+    }
+
+    @Test
+    public void testCountsPerUid() {
+        CallerStats stats = new CallerStats();
+        stats.record(10001, /* write= */ false, 10, 1_000_000);
+        stats.record(10001, /* write= */ true, 20, 1_000_000);
+        stats.record(10002, /* write= */ false, 5, 5_000_000);
+
+        String[] lines = dump(stats);
+
+        assertEquals("Callers (2):", lines[0]);
+        assertEquals("  uid=10002 reads=1 writes=0 bytes=5 timeMs=5.000", lines[1]);
+        assertEquals("  uid=10001 reads=1 writes=1 bytes=30 timeMs=2.000", lines[2]);
+    }
+
+    @Test
+    public void testTableSizeIsBounded() {
+        CallerStats stats = new CallerStats();
+        int callers = CallerStats.STRIPES * CallerStats.SLOTS_PER_STRIPE * 4;
+        for (int uid = 0; uid < callers; uid++) {
+            stats.record(uid, /* write= */ false, 1, 1);
+        }
+
+        String[] lines = dump(stats);
+        long reads = 0;
+        int otherRows = 0;
+        for (int i = 1; i < lines.length; i++) {
+            if (lines[i].startsWith("  uid=other ")) {
+                otherRows++;
+            }
+            String count = lines[i].replaceAll(".* reads=(\\d+) .*", "$1");
+            reads += Long.parseLong(count);
+        }
+
+        assertEquals(1, otherRows);
+        assertTrue(lines.length - 1 <= CallerStats.STRIPES * CallerStats.SLOTS_PER_STRIPE + 1);
+        assertEquals(callers, reads);
+    }
+}
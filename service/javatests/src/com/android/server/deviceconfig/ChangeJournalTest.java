@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.provider.DeviceConfigDelta;
+
+import androidx.test.runner.AndroidJUnit4;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class ChangeJournalTest {
+
+    @Test
+    public void testReturnsCoalescedChanges() {
+        ChangeJournal journal = new ChangeJournal(8);
+        DeviceConfigDelta start = journal.getChangesSince(0, 0);
+        assertTrue(start.isResyncRequired());
+
+        journal.record("a", "one", "1");
+        journal.record("a", "one", "2");
+        journal.record("b", "two", null);
+        DeviceConfigDelta delta = journal.getChangesSince(start.getEpoch(), start.getSequence());
+
+        assertFalse(delta.isResyncRequired());
+        assertEquals(3, delta.getSequence());
+        Map<String, String> b = new HashMap<>();
+        b.put("two", null);
+        assertEquals(Map.of("a", Map.of("one", "2"), "b", b), delta.getChanges());
+
+        DeviceConfigDelta none = journal.getChangesSince(delta.getEpoch(), delta.getSequence());
+        assertFalse(none.isResyncRequired());
+        assertTrue(none.getChanges().isEmpty());
+    }
+
+    @Test
+    public void testResyncOnceChangesAreDropped() {
+        ChangeJournal journal = new ChangeJournal(4);
+        long epoch = journal.getChangesSince(0, 0).getEpoch();
+        for (int i = 1; i <= 6; i++) {
+            journal.record("a", "key" + i, "value");
+        }
+
+        // changes 3 to 6 are kept
+        assertFalse(journal.getChangesSince(epoch, 2).isResyncRequired());
+        assertEquals(4, journal.getChangesSince(epoch, 2).getChanges().get("a").size());
+        assertTrue(journal.getChangesSince(epoch, 1).isResyncRequired());
+        assertTrue(journal.getChangesSince(epoch, 7).isResyncRequired());
+    }
+
+    @Test
+    public void testClearStartsNewEpoch() {
+        ChangeJournal journal = new ChangeJournal(4);
+        journal.record("a", "one", "1");
+        long epoch = journal.getChangesSince(0, 0).getEpoch();
+
+        journal.clear();
+
+        DeviceConfigDelta delta = journal.getChangesSince(epoch, 1);
+        assertTrue(delta.isResyncRequired());
+        assertNotEquals(epoch, delta.getEpoch());
+        assertEquals(0, delta.getSequence());
+    }
+}
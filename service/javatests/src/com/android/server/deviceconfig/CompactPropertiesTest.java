@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import android.os.BadParcelableException;
+import android.os.Parcel;
+import android.provider.CompactProperties;
+import android.provider.DeviceConfig;
+import android.provider.NamespaceRegistry;
+
+import androidx.test.runner.AndroidJUnit4;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class CompactPropertiesTest {
+    private static final String NAMESPACE = DeviceConfig.NAMESPACE_ALARM_MANAGER;
+
+    @Test
+    public void testRoundTrip() {
+        Map<String, String> values = new HashMap<>();
+        values.put("flag_a", "1");
+        values.put("flag_ab", "2");
+        values.put("flag_abc", "");
+        values.put("other", "é");
+        values.put("unset", null);
+        values.put("", "empty key");
+
+        DeviceConfig.Properties properties = roundTrip(NAMESPACE, values);
+
+        assertEquals(NAMESPACE, properties.getNamespace());
+        assertEquals(values.keySet(), properties.getKeyset());
+        assertEquals("2", properties.getString("flag_ab", null));
+        assertEquals("", properties.getString("flag_abc", null));
+        assertEquals("é", properties.getString("other", null));
+        assertNull(properties.getString("unset", null));
+        assertEquals("empty key", properties.getString("", null));
+    }
+
+    @Test
+    public void testRoundTripManySharedPrefixes() {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < 300; i++) {
+            values.put("a_rather_long_shared_prefix_of_many_flags_" + i, Integer.toString(i));
+        }
+
+        DeviceConfig.Properties properties = roundTrip(NAMESPACE, values);
+
+        assertEquals(values.keySet(), properties.getKeyset());
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            assertEquals(entry.getValue(), properties.getString(entry.getKey(), null));
+        }
+    }
+
+    @Test
+    public void testRoundTripUnregisteredNamespace() {
+        String namespace = "not_a_registered_namespace";
+        assertEquals(NamespaceRegistry.UNKNOWN_ID, NamespaceRegistry.getId(namespace));
+
+        DeviceConfig.Properties properties = roundTrip(namespace, Map.of("a", "1"));
+
+        assertEquals(namespace, properties.getNamespace());
+        assertEquals("1", properties.getString("a", null));
+    }
+
+    @Test
+    public void testRoundTripEmpty() {
+        DeviceConfig.Properties properties = roundTrip(NAMESPACE, Map.of());
+
+        assertTrue(properties.getKeyset().isEmpty());
+    }
+
+    @Test
+    public void testTruncatedPayloadThrows() {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            values.put("flag_" + i, "value_" + i);
+        }
+        byte[] data = encode(values);
+
+        for (int length = 0; length < data.length; length++) {
+            Parcel parcel = payload(NamespaceRegistry.getId(NAMESPACE), values.size(),
+                    Arrays.copyOf(data, length));
+            try {
+                assertThrows(BadParcelableException.class,
+                        () -> CompactProperties.CREATOR.createFromParcel(parcel));
+            } finally {
+                parcel.recycle();
+            }
+        }
+    }
+
+    @Test
+    public void testCorruptPayloadThrows() {
+        int id = NamespaceRegistry.getId(NAMESPACE);
+        // shares 5 bytes with a previous key that does not exist
+        assertCorrupt(payload(id, 1, new byte[] {5, 1, 'a', 1}));
+        // value longer than the payload
+        assertCorrupt(payload(id, 1, new byte[] {0, 1, 'a', 100}));
+        // varint that never ends
+        assertCorrupt(payload(id, 1, new byte[] {(byte) 0x80, (byte) 0x80, (byte) 0x80,
+                (byte) 0x80, (byte) 0x80, (byte) 0x80}));
+        // more entries than the payload can hold
+        assertCorrupt(payload(id, 100, new byte[] {0, 1, 'a', 1}));
+        assertCorrupt(payload(id, -1, new byte[0]));
+        // namespace id out of range
+        assertCorrupt(payload(NamespaceRegistry.size(), 0, new byte[0]));
+    }
+
+    private static DeviceConfig.Properties roundTrip(String namespace,
+            Map<String, String> values) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            new CompactProperties(namespace, values).writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            return CompactProperties.CREATOR.createFromParcel(parcel).getProperties();
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    /** Returns the value payload CompactProperties writes for {@code values}. */
+    private static byte[] encode(Map<String, String> values) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            new CompactProperties(NAMESPACE, values).writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            parcel.readInt();
+            parcel.readInt();
+            return parcel.createByteArray();
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    private static Parcel payload(int id, int count, byte[] data) {
+        Parcel parcel = Parcel.obtain();
+        parcel.writeInt(id);
+        parcel.writeInt(count);
+        parcel.writeByteArray(data);
+        parcel.setDataPosition(0);
+        return parcel;
+    }
+
+    private static void assertCorrupt(Parcel parcel) {
+        try {
+            assertThrows(BadParcelableException.class,
+                    () -> CompactProperties.CREATOR.createFromParcel(parcel));
+        } finally {
+            parcel.recycle();
+        }
+    }
+}
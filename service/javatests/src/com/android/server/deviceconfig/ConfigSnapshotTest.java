@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+import androidx.test.runner.AndroidJUnit4;
+
+import com.android.server.deviceconfig.db.DeviceConfigDbAdapter;
+import com.android.server.deviceconfig.proto.NamespaceSnapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class ConfigSnapshotTest {
+    private final DeviceConfigDbAdapter mAdapter = new DeviceConfigDbAdapter(null) {
+        @Override
+        public void forEachValue(ValueVisitor visitor) throws IOException {
+            visitor.visit("a", "one", "1");
+            visitor.visit("a", "two", null);
+            visitor.visit("b", "quoted", "\"x\"\n\\");
+        }
+    };
+
+    @Test
+    public void testNdjson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(3, ConfigSnapshot.write(mAdapter, ConfigSnapshot.FORMAT_NDJSON, out));
+        assertEquals("{\"namespace\":\"a\",\"key\":\"one\",\"value\":\"1\"}\n"
+                + "{\"namespace\":\"a\",\"key\":\"two\",\"value\":null}\n"
+                + "{\"namespace\":\"b\",\"key\":\"quoted\",\"value\":\"\\\"x\\\"\\n\\\\\"}\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testProtoHasOneMessagePerNamespace() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(3, ConfigSnapshot.write(mAdapter, ConfigSnapshot.FORMAT_PROTO, out));
+        InputStream in = new ByteArrayInputStream(out.toByteArray());
+        NamespaceSnapshot a = NamespaceSnapshot.parseDelimitedFrom(in);
+        assertEquals("a", a.getNamespace());
+        assertEquals(2, a.getFlagsCount());
+        assertEquals("1", a.getFlags(0).getValue());
+        assertFalse(a.getFlags(1).hasValue());
+        NamespaceSnapshot b = NamespaceSnapshot.parseDelimitedFrom(in);
+        assertEquals("b", b.getNamespace());
+        assertNull(NamespaceSnapshot.parseDelimitedFrom(in));
+    }
+
+    @Test
+    public void testReadsWhatItWrites() throws IOException {
+        Map<String, String> a = new HashMap<>();
+        a.put("one", "1");
+        a.put("two", null);
+        Map<String, Map<String, String>> expected =
+                Map.of("a", a, "b", Map.of("quoted", "\"x\"\n\\"));
+
+        for (String format : new String[] {
+                ConfigSnapshot.FORMAT_NDJSON, ConfigSnapshot.FORMAT_PROTO}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ConfigSnapshot.write(mAdapter, format, out);
+            assertEquals(format, expected, ConfigSnapshot.read(format,
+                    new ByteArrayInputStream(out.toByteArray())));
+        }
+    }
+
+    @Test
+    public void testReadRejectsEntriesWithoutKey() {
+        byte[] snapshot = ("{\"namespace\":\"a\",\"key\":\"one\",\"value\":\"1\"}\n"
+                + "\n"
+                + "{\"namespace\":\"a\",\"value\":\"2\"}\n").getBytes(StandardCharsets.UTF_8);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ConfigSnapshot.read(ConfigSnapshot.FORMAT_NDJSON,
+                        new ByteArrayInputStream(snapshot)));
+        assertEquals("line 3: missing namespace or key", e.getMessage());
+    }
+}
@@ -19,6 +19,8 @@ package com.android.server.deviceconfig;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assume.assumeTrue;
 
 import android.provider.DeviceConfig;
@@ -30,8 +32,12 @@ import com.android.server.deviceconfig.DeviceConfigBootstrapValues;
 import androidx.test.platform.app.InstrumentationRegistry;
 import androidx.test.runner.AndroidJUnit4;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
@@ -45,13 +51,53 @@ public class DeviceConfigBootstrapValuesTest {
 
     private static final String PATH_1 = "file:///data/local/tmp/deviceconfig/bootstrap1.txt";
 
-    @Test
-    public void assertParsesFiles() throws IOException {
+    /** Keeps the test's record of applied files apart from the device's own. */
+    private static final String META_NAMESPACE = "DeviceConfigBootstrapValuesTest";
+
+    private static final String[] NAMESPACES = {"a.a.a", "b.b.b", "c.c.c", META_NAMESPACE};
+
+    private File mDefaults;
+    private File mApplied;
+
+    @Before
+    public void setUp() {
         assumeTrue(SdkLevel.isAtLeastV());
         InstrumentationRegistry.getInstrumentation().getUiAutomation().adoptShellPermissionIdentity(
                 WRITE_DEVICE_CONFIG_PERMISSION, READ_DEVICE_CONFIG_PERMISSION);
+        File dir = InstrumentationRegistry.getInstrumentation().getTargetContext().getCacheDir();
+        mDefaults = new File(dir, "bootstrap_defaults.txt");
+        mApplied = new File(dir, "bootstrap_defaults_applied");
+        mApplied.delete();
+        deleteNamespaces();
+    }
+
+    @After
+    public void tearDown() {
+        if (!SdkLevel.isAtLeastV()) {
+            return;
+        }
+        deleteNamespaces();
+        mDefaults.delete();
+        mApplied.delete();
+        InstrumentationRegistry.getInstrumentation().getUiAutomation()
+                .dropShellPermissionIdentity();
+    }
+
+    private static void deleteNamespaces() {
+        for (String namespace : NAMESPACES) {
+            for (String key : DeviceConfig.getProperties(namespace).getKeyset()) {
+                DeviceConfig.deleteProperty(namespace, key);
+            }
+        }
+    }
 
-        DeviceConfigBootstrapValues values = new DeviceConfigBootstrapValues(PATH_1);
+    private DeviceConfigBootstrapValues newBootstrapValues(String path) {
+        return new DeviceConfigBootstrapValues(path, mApplied, META_NAMESPACE);
+    }
+
+    @Test
+    public void assertParsesFiles() throws IOException {
+        DeviceConfigBootstrapValues values = newBootstrapValues(PATH_1);
         values.applyValuesIfNeeded();
 
         assertTrue(DeviceConfig.getBoolean("a.a.a", "b.b.b", false));
@@ -60,4 +106,46 @@ public class DeviceConfigBootstrapValuesTest {
         assertEquals(2,  DeviceConfig.getProperties("a.a.a").getKeyset().size());
         assertEquals(1,  DeviceConfig.getProperties("b.b.b").getKeyset().size());
     }
+
+    @Test
+    public void assertAppliesOnlyChangedValues() throws IOException {
+        DeviceConfigBootstrapValues values = newBootstrapValues(mDefaults.toURI().toString());
+
+        Files.writeString(mDefaults.toPath(),
+                "c.c.c:d.d=enabled\nc.c.c:e.e=enabled\nc.c.c:f.f=enabled\n");
+        values.applyValuesIfNeeded();
+        assertTrue(DeviceConfig.getBoolean("c.c.c", "d.d", false));
+        assertTrue(DeviceConfig.getBoolean("c.c.c", "e.e", false));
+        assertTrue(DeviceConfig.getBoolean("c.c.c", "f.f", false));
+
+        // f.f is unchanged in the new file, so the value set here must survive.
+        DeviceConfig.setProperty("c.c.c", "f.f", "false", /* makeDefault= */ false);
+        Files.writeString(mDefaults.toPath(), "c.c.c:d.d=disabled\nc.c.c:f.f=enabled\n");
+        values.applyValuesIfNeeded();
+        assertFalse(DeviceConfig.getBoolean("c.c.c", "d.d", true));
+        assertNull(DeviceConfig.getProperty("c.c.c", "e.e"));
+        assertFalse(DeviceConfig.getBoolean("c.c.c", "f.f", true));
+    }
+
+    @Test
+    public void assertDoesNotReapplyWithoutRecord() throws IOException {
+        // a device upgraded from a version that only recorded that a file was processed
+        DeviceConfig.setProperty(META_NAMESPACE, "processed_values", "true",
+                /* makeDefault= */ false);
+        DeviceConfig.setProperty("c.c.c", "d.d", "false", /* makeDefault= */ false);
+        DeviceConfigBootstrapValues values = newBootstrapValues(mDefaults.toURI().toString());
+
+        Files.writeString(mDefaults.toPath(), "c.c.c:d.d=enabled\nc.c.c:e.e=enabled\n");
+        values.applyValuesIfNeeded();
+        assertFalse(DeviceConfig.getBoolean("c.c.c", "d.d", true));
+        assertNull(DeviceConfig.getProperty("c.c.c", "e.e"));
+        assertNotNull(DeviceConfig.getProperty(META_NAMESPACE, "content_hash"));
+        assertTrue(mApplied.exists());
+
+        // the recorded file is the base for the next update
+        Files.writeString(mDefaults.toPath(), "c.c.c:d.d=enabled\nc.c.c:e.e=disabled\n");
+        values.applyValuesIfNeeded();
+        assertFalse(DeviceConfig.getBoolean("c.c.c", "d.d", true));
+        assertFalse(DeviceConfig.getBoolean("c.c.c", "e.e", true));
+    }
 }
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.os.ParcelFileDescriptor;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.runner.AndroidJUnit4;
+
+import com.android.server.deviceconfig.db.DeviceConfigDbHelper;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class DeviceConfigServiceShellCommandTest {
+    private static final String WRITE_DEVICE_CONFIG_PERMISSION =
+            "android.permission.WRITE_DEVICE_CONFIG";
+
+    private static final String READ_DEVICE_CONFIG_PERMISSION =
+            "android.permission.READ_DEVICE_CONFIG";
+
+    private Context mContext;
+    private DeviceConfigServiceImpl mService;
+    private File mIn;
+    private File mOut;
+    private File mErr;
+
+    @Before
+    public void setUp() {
+        InstrumentationRegistry.getInstrumentation().getUiAutomation().adoptShellPermissionIdentity(
+                WRITE_DEVICE_CONFIG_PERMISSION, READ_DEVICE_CONFIG_PERMISSION);
+        mContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        mContext.deleteDatabase(DeviceConfigDbHelper.DATABASE_NAME);
+        mService = new DeviceConfigServiceImpl(mContext);
+        mIn = new File(mContext.getCacheDir(), "shell_in");
+        mOut = new File(mContext.getCacheDir(), "shell_out");
+        mErr = new File(mContext.getCacheDir(), "shell_err");
+    }
+
+    @After
+    public void tearDown() {
+        mContext.deleteDatabase(DeviceConfigDbHelper.DATABASE_NAME);
+        mIn.delete();
+        mOut.delete();
+        mErr.delete();
+        InstrumentationRegistry.getInstrumentation().getUiAutomation()
+                .dropShellPermissionIdentity();
+    }
+
+    @Test
+    public void testParseBatch() throws IOException {
+        Map<String, Map<String, String>> values = parseBatch(
+                "# a comment\n"
+                + "\n"
+                + "a/one=1\n"
+                + "  a / two =  2 \n"
+                + "a/empty=\n"
+                + "a/equals=x=y\n"
+                + "b/one=other\n"
+                + "a/one=later\n");
+
+        assertEquals(Map.of(
+                "a", Map.of("one", "later", "two", "  2 ", "empty", "", "equals", "x=y"),
+                "b", Map.of("one", "other")), values);
+    }
+
+    @Test
+    public void testParseBatchKeepsQuotes() throws IOException {
+        Map<String, Map<String, String>> values = parseBatch(
+                "a/double=\"two words\"\n"
+                + "a/single='x'\n"
+                + "a/unbalanced=\"\n");
+
+        assertEquals(Map.of("double", "\"two words\"", "single", "'x'", "unbalanced", "\""),
+                values.get("a"));
+    }
+
+    @Test
+    public void testParseBatchRejectsMalformedLines() {
+        assertMalformed("a/one=1\nno_separators\n", "line 2");
+        assertMalformed("a/one\n", "line 1");
+        assertMalformed("a=one/1\n", "line 1");
+        assertMalformed("/one=1\n", "line 1");
+        assertMalformed("a/=1\n", "line 1");
+        assertMalformed("# comment\n\na/ =1\n", "line 3");
+    }
+
+    @Test
+    public void testPutGetDelete() throws IOException {
+        assertEquals(0, run("", "put", "a", "one", "1").code);
+        assertEquals("1\n", run("", "get", "a", "one").out);
+
+        ShellResult delete = run("", "delete", "a", "one");
+        assertEquals(0, delete.code);
+        assertEquals("Successfully deleted one from a\n", delete.out);
+        assertEquals("null\n", run("", "get", "a", "one").out);
+    }
+
+    @Test
+    public void testPutDefaultIsRejected() throws IOException {
+        ShellResult put = run("", "put", "a", "one", "1", "default");
+
+        assertEquals(-1, put.code);
+        assertEquals("Error: put default is not supported yet\n", put.err);
+        assertEquals("null\n", run("", "get", "a", "one").out);
+    }
+
+    @Test
+    public void testList() throws IOException {
+        run("", "put", "a", "two", "2");
+        run("", "put", "a", "one", "1");
+        run("", "put", "b", "one", "3");
+
+        assertEquals("one=1\ntwo=2\n", run("", "list", "a").out);
+        String all = run("", "list").out;
+        assertTrue(all, all.contains("a/one=1\n"));
+        assertTrue(all, all.contains("a/two=2\n"));
+        assertTrue(all, all.contains("b/one=3\n"));
+    }
+
+    @Test
+    public void testPutBatch() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 1001; i++) {
+            input.append("a/key").append(i).append("=value").append(i).append('\n');
+        }
+
+        ShellResult result = run(input.toString(), "put-batch");
+
+        assertEquals(0, result.code);
+        assertEquals("Wrote 1001 values\n", result.out);
+        assertEquals(1001, run("", "list", "a").out.split("\n").length);
+        assertEquals("value1000\n", run("", "get", "a", "key1000").out);
+    }
+
+    @Test
+    public void testPutBatchWritesNothingIfALineIsMalformed() throws IOException {
+        ShellResult result = run("a/one=1\nmalformed\n", "put-batch");
+
+        assertEquals(-1, result.code);
+        assertTrue(result.err, result.err.startsWith("Error: line 2: "));
+        assertEquals("", run("", "list", "a").out);
+    }
+
+    @Test
+    public void testPutBatchLeavesInputOpen() throws IOException {
+        Files.write(mIn.toPath(), "a/one=1\n".getBytes(StandardCharsets.UTF_8));
+        try (ParcelFileDescriptor in =
+                        ParcelFileDescriptor.open(mIn, ParcelFileDescriptor.MODE_READ_ONLY);
+                ParcelFileDescriptor out = open(mOut);
+                ParcelFileDescriptor err = open(mErr)) {
+            mService.handleShellCommand(in, out, err, new String[] {"put-batch"});
+
+            assertTrue(in.getFileDescriptor().valid());
+        }
+    }
+
+    private static Map<String, Map<String, String>> parseBatch(String input) throws IOException {
+        return DeviceConfigServiceImpl.parseBatch(new BufferedReader(new StringReader(input)));
+    }
+
+    private static void assertMalformed(String input, String line) {
+        IllegalArgumentException e =
+                assertThrows(IllegalArgumentException.class, () -> parseBatch(input));
+        assertTrue(e.getMessage(), e.getMessage().startsWith(line + ": "));
+    }
+
+    private ShellResult run(String input, String... args) throws IOException {
+        Files.write(mIn.toPath(), input.getBytes(StandardCharsets.UTF_8));
+        int code;
+        try (ParcelFileDescriptor in =
+                        ParcelFileDescriptor.open(mIn, ParcelFileDescriptor.MODE_READ_ONLY);
+                ParcelFileDescriptor out = open(mOut);
+                ParcelFileDescriptor err = open(mErr)) {
+            code = mService.handleShellCommand(in, out, err, args);
+        }
+        return new ShellResult(code, read(mOut), read(mErr));
+    }
+
+    private static ParcelFileDescriptor open(File file) throws IOException {
+        return ParcelFileDescriptor.open(file, ParcelFileDescriptor.MODE_WRITE_ONLY
+                | ParcelFileDescriptor.MODE_CREATE | ParcelFileDescriptor.MODE_TRUNCATE);
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static final class ShellResult {
+        final int code;
+        final String out;
+        final String err;
+
+        ShellResult(int code, String out, String err) {
+            this.code = code;
+            this.out = out;
+            this.err = err;
+        }
+    }
+}
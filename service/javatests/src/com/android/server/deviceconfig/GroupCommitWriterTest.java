@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.runner.AndroidJUnit4;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class GroupCommitWriterTest {
+    private final ArrayDeque<Runnable> mTasks = new ArrayDeque<>();
+    private final List<Map<String, Map<String, String>>> mCommits = new ArrayList<>();
+    private boolean mCommitResult = true;
+    private final GroupCommitWriter mWriter = new GroupCommitWriter(values -> {
+        mCommits.add(values);
+        return mCommitResult;
+    }, mTasks::add);
+
+    @Test
+    public void testCommitsQueuedWritesTogether() {
+        List<Boolean> results = new ArrayList<>();
+        mWriter.enqueue("a", Map.of("one", "1"), results::add);
+        mWriter.enqueue("a", Map.of("one", "2", "two", "2"), results::add);
+        mWriter.enqueue("b", Map.of("three", "3"), null);
+        assertEquals(1, mTasks.size());
+
+        runTasks();
+
+        assertEquals(List.of(Map.of("a", Map.of("one", "2", "two", "2"),
+                "b", Map.of("three", "3"))), mCommits);
+        assertEquals(List.of(true, true), results);
+    }
+
+    @Test
+    public void testReportsFailedCommit() {
+        mCommitResult = false;
+        List<Boolean> results = new ArrayList<>();
+        mWriter.enqueue("a", Map.of("one", "1"), results::add);
+
+        runTasks();
+
+        assertEquals(List.of(false), results);
+    }
+
+    @Test
+    public void testSplitsLargeBatches() {
+        Map<String, String> large = new HashMap<>();
+        for (int i = 0; i < GroupCommitWriter.MAX_BATCH_VALUES; i++) {
+            large.put("key" + i, "value");
+        }
+        mWriter.enqueue("a", large, null);
+        mWriter.enqueue("b", Map.of("one", "1"), null);
+
+        runTasks();
+
+        assertEquals(List.of(Map.of("a", large), Map.of("b", Map.of("one", "1"))), mCommits);
+    }
+
+    @Test
+    public void testRejectsWritesOnceQueueIsFull() {
+        for (int i = 0; i < GroupCommitWriter.MAX_PENDING_WRITES; i++) {
+            assertTrue(mWriter.enqueue("a", Map.of("key" + i, "value"), null));
+        }
+
+        assertFalse(mWriter.enqueue("a", Map.of("one", "1"), null));
+
+        runTasks();
+        assertTrue(mWriter.enqueue("a", Map.of("one", "1"), null));
+    }
+
+    private void runTasks() {
+        while (!mTasks.isEmpty()) {
+            mTasks.poll().run();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.provider.LatencyHistogram;
+
+import androidx.test.runner.AndroidJUnit4;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class LatencyHistogramTest {
+    /** Longer than any bucket, so the max never caps the percentiles under test. */
+    private static final long HUGE_NANOS = 1L << 40;
+
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals("", dump(histogram));
+    }
+
+    @Test
+    public void testPercentileIsBucketUpperBound() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1500);
+        histogram.record(3000);
+
+        assertEquals(2, histogram.getCount());
+        // 1500ns falls in [1280, 1536)
+        assertEquals(1536, histogram.getPercentile(50));
+        // [2560, 3072) is capped by the max
+        assertEquals(3000, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void testBucketsAreWithinAQuarter() {
+        for (long nanos = 1024; nanos < (1L << 36); nanos += Math.max(1, nanos / 7)) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(nanos);
+            histogram.record(HUGE_NANOS);
+
+            long bound = histogram.getPercentile(50);
+            assertTrue(nanos + " -> " + bound, bound > nanos);
+            assertTrue(nanos + " -> " + bound, bound <= nanos + nanos / 4);
+        }
+    }
+
+    @Test
+    public void testBucketEdges() {
+        // the first bucket of each power of two starts at it, the last one ends at the next
+        for (int exponent = 10; exponent < 36; exponent++) {
+            long power = 1L << exponent;
+            assertEquals(power, upperBound(power - 1));
+            assertEquals(power + (power >> 2), upperBound(power));
+        }
+    }
+
+    @Test
+    public void testShortDurationsShareTheFirstBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(0);
+        histogram.record(1023);
+        histogram.record(HUGE_NANOS);
+
+        assertEquals(1024, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void testNegativeDurationCountsAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void testLongDurationsShareTheLastBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(HUGE_NANOS);
+
+        assertEquals(1L << 36, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void testPercentileRank() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(1500);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(100_000);
+        }
+
+        assertEquals(1536, histogram.getPercentile(90));
+        assertEquals(100_000, histogram.getPercentile(91));
+        assertEquals(100_000, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void testDump() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1500);
+        histogram.record(3000);
+
+        assertEquals("getProperties: count=2 meanUs=2.3 p50Us=1.5 p90Us=3.0 p99Us=3.0 maxUs=3.0\n",
+                dump(histogram));
+    }
+
+    /** Returns the percentile reported for a single duration, uncapped by the max. */
+    private static long upperBound(long nanos) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(nanos);
+        histogram.record(HUGE_NANOS);
+        return histogram.getPercentile(50);
+    }
+
+    private static String dump(LatencyHistogram histogram) {
+        StringWriter out = new StringWriter();
+        try (PrintWriter pw = new PrintWriter(out)) {
+            histogram.dump(pw, "getProperties");
+        }
+        return out.toString();
+    }
+}
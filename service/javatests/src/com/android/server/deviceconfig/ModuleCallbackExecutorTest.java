@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.runner.AndroidJUnit4;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class ModuleCallbackExecutorTest {
+
+    @Test
+    public void testRunsNamespaceCallbacksInOrder() throws InterruptedException {
+        ModuleCallbackExecutor executor = new ModuleCallbackExecutor("test", 2);
+        Executor a = executor.forNamespace("a");
+        Executor b = executor.forNamespace("b");
+        List<Integer> order = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(200);
+
+        for (int i = 0; i < 100; i++) {
+            int value = i;
+            a.execute(() -> {
+                // no lock needed if callbacks for "a" never overlap
+                order.add(value);
+                done.countDown();
+            });
+            b.execute(done::countDown);
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+    }
+
+    @Test
+    public void testDumpsNamespaces() throws InterruptedException {
+        ModuleCallbackExecutor executor = new ModuleCallbackExecutor("test", 1);
+        CountDownLatch done = new CountDownLatch(1);
+        executor.forNamespace("a").execute(done::countDown);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        StringWriter dump = new StringWriter();
+        executor.dump(new PrintWriter(dump, true));
+
+        assertTrue(dump.toString(), dump.toString().contains("a: pending=0"));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import static android.provider.NamespaceRegistry.ATTRIBUTE_BOOT_STABLE;
+import static android.provider.NamespaceRegistry.ATTRIBUTE_NATIVE;
+import static android.provider.NamespaceRegistry.ATTRIBUTE_PUBLIC;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import android.provider.DeviceConfig;
+import android.provider.NamespaceRegistry;
+
+import androidx.test.runner.AndroidJUnit4;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class NamespaceRegistryTest {
+
+    @Test
+    public void testRegistersEveryDeclaredNamespace() throws IllegalAccessException {
+        Set<String> declared = new HashSet<>();
+        for (Field field : DeviceConfig.class.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (field.getName().startsWith("NAMESPACE_") && field.getType() == String.class
+                    && Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers)) {
+                field.setAccessible(true);
+                declared.add((String) field.get(null));
+            }
+        }
+
+        Set<String> registered = new HashSet<>();
+        for (int id = 0; id < NamespaceRegistry.size(); id++) {
+            registered.add(NamespaceRegistry.getNamespace(id));
+        }
+        assertEquals(declared, registered);
+        assertEquals(declared.size(), NamespaceRegistry.size());
+    }
+
+    @Test
+    public void testIdsAreSortedAndRoundTrip() {
+        for (int id = 0; id < NamespaceRegistry.size(); id++) {
+            String namespace = NamespaceRegistry.getNamespace(id);
+            assertEquals(id, NamespaceRegistry.getId(namespace));
+            if (id > 0) {
+                assertTrue(namespace,
+                        NamespaceRegistry.getNamespace(id - 1).compareTo(namespace) < 0);
+            }
+        }
+    }
+
+    @Test
+    public void testUnknownNamespace() {
+        assertEquals(NamespaceRegistry.UNKNOWN_ID, NamespaceRegistry.getId("not_a_namespace"));
+        assertEquals(0, NamespaceRegistry.getAttributes(NamespaceRegistry.UNKNOWN_ID));
+        assertFalse(NamespaceRegistry.isPublic("not_a_namespace"));
+        assertNull(NamespaceRegistry.getNamespace(-1));
+        assertNull(NamespaceRegistry.getNamespace(NamespaceRegistry.size()));
+        assertEquals(0, NamespaceRegistry.getAttributes(NamespaceRegistry.size()));
+    }
+
+    @Test
+    public void testAttributes() {
+        assertAttributes(DeviceConfig.NAMESPACE_ACTIVITY_MANAGER, 0);
+        assertAttributes(DeviceConfig.NAMESPACE_RUNTIME, ATTRIBUTE_PUBLIC);
+        assertAttributes(DeviceConfig.NAMESPACE_STATSD_JAVA_BOOT,
+                ATTRIBUTE_PUBLIC | ATTRIBUTE_BOOT_STABLE);
+        assertAttributes(DeviceConfig.NAMESPACE_RUNTIME_NATIVE, ATTRIBUTE_NATIVE);
+        assertAttributes(DeviceConfig.NAMESPACE_RUNTIME_NATIVE_BOOT,
+                ATTRIBUTE_NATIVE | ATTRIBUTE_BOOT_STABLE);
+        assertAttributes(DeviceConfig.NAMESPACE_MEMORY_SAFETY_NATIVE_BOOT,
+                ATTRIBUTE_NATIVE | ATTRIBUTE_BOOT_STABLE);
+    }
+
+    @Test
+    public void testAttributesFollowNamespaceNames() {
+        for (int id = 0; id < NamespaceRegistry.size(); id++) {
+            String namespace = NamespaceRegistry.getNamespace(id);
+            assertEquals(namespace, namespace.endsWith("_boot"),
+                    NamespaceRegistry.hasAttributes(id, ATTRIBUTE_BOOT_STABLE));
+            assertEquals(namespace,
+                    namespace.endsWith("_native") || namespace.endsWith("_native_boot"),
+                    NamespaceRegistry.hasAttributes(id, ATTRIBUTE_NATIVE));
+        }
+    }
+
+    @Test
+    public void testPublicNamespaces() {
+        List<String> publicNamespaces = DeviceConfig.getPublicNamespaces();
+
+        Set<String> registered = new HashSet<>();
+        for (int id = 0; id < NamespaceRegistry.size(); id++) {
+            if (NamespaceRegistry.hasAttributes(id, ATTRIBUTE_PUBLIC)) {
+                registered.add(NamespaceRegistry.getNamespace(id));
+            }
+        }
+        assertEquals(new HashSet<>(publicNamespaces), registered);
+        for (String namespace : publicNamespaces) {
+            assertNotEquals(namespace, NamespaceRegistry.UNKNOWN_ID,
+                    NamespaceRegistry.getId(namespace));
+            assertTrue(namespace, NamespaceRegistry.isPublic(namespace));
+        }
+    }
+
+    @Test
+    public void testPublicNamespacesAreUnmodifiable() {
+        List<String> publicNamespaces = DeviceConfig.getPublicNamespaces();
+
+        assertThrows(UnsupportedOperationException.class,
+                () -> publicNamespaces.set(0, DeviceConfig.NAMESPACE_ACTIVITY_MANAGER));
+        assertThrows(UnsupportedOperationException.class,
+                () -> publicNamespaces.add(DeviceConfig.NAMESPACE_ACTIVITY_MANAGER));
+        assertFalse(NamespaceRegistry.isPublic(DeviceConfig.NAMESPACE_ACTIVITY_MANAGER));
+    }
+
+    private static void assertAttributes(String namespace, int attributes) {
+        assertEquals(namespace, attributes,
+                NamespaceRegistry.getAttributes(NamespaceRegistry.getId(namespace)));
+    }
+}
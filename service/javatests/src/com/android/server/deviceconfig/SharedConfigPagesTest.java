@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.provider.DeviceConfig;
+import android.provider.NamespaceRegistry;
+import android.provider.SharedConfigGenerations;
+import android.provider.SharedConfigPage;
+
+import androidx.test.runner.AndroidJUnit4;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class SharedConfigPagesTest {
+    private static final String NAMESPACE = DeviceConfig.NAMESPACE_ALARM_MANAGER;
+
+    private final Map<String, Map<String, String>> mValues = new HashMap<>();
+    private final SharedConfigPages mPages =
+            new SharedConfigPages(namespace -> mValues.getOrDefault(namespace, Map.of()));
+
+    @Test
+    public void testPageHoldsNamespaceValues() throws Exception {
+        Map<String, String> values = new HashMap<>();
+        values.put("b", "2");
+        values.put("a", "1");
+        values.put("é", "ü");
+        values.put("unset", null);
+        mValues.put(NAMESPACE, values);
+
+        SharedConfigPage page = SharedConfigPage.wrap(mPages.getPage(NAMESPACE).mapReadOnly());
+
+        assertEquals(4, page.size());
+        assertEquals("1", page.get("a"));
+        assertEquals("ü", page.get("é"));
+        assertTrue(page.contains("unset"));
+        assertNull(page.get("unset"));
+        assertFalse(page.contains("missing"));
+        assertEquals(values, page.getAll());
+    }
+
+    @Test
+    public void testInvalidateBumpsGeneration() throws Exception {
+        mValues.put(NAMESPACE, Map.of("a", "1"));
+        SharedConfigGenerations generations =
+                SharedConfigGenerations.wrap(mPages.getGenerationTable().mapReadOnly());
+        int id = NamespaceRegistry.getId(NAMESPACE);
+        SharedConfigPage page = SharedConfigPage.wrap(mPages.getPage(NAMESPACE).mapReadOnly());
+        assertEquals(generations.get(id), page.getGeneration());
+
+        mValues.put(NAMESPACE, Map.of("a", "2"));
+        mPages.invalidate(NAMESPACE);
+
+        assertNotEquals(generations.get(id), page.getGeneration());
+        SharedConfigPage updated =
+                SharedConfigPage.wrap(mPages.getPage(NAMESPACE).mapReadOnly());
+        assertEquals(generations.get(id), updated.getGeneration());
+        assertEquals("2", updated.get("a"));
+    }
+
+    @Test
+    public void testUnknownNamespaceIsNotShared() {
+        assertNull(mPages.getPage("not_a_registered_namespace"));
+    }
+}
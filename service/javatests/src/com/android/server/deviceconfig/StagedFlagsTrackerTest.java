@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.runner.AndroidJUnit4;
+
+import java.io.File;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class StagedFlagsTrackerTest {
+    private File mFile;
+
+    @Before
+    public void setUp() {
+        mFile = new File(InstrumentationRegistry.getInstrumentation().getTargetContext()
+                .getCacheDir(), "staged_flags_tracker_test");
+        mFile.delete();
+    }
+
+    @After
+    public void tearDown() {
+        mFile.delete();
+    }
+
+    @Test
+    public void testCountsPerNamespace() {
+        StagedFlagsTracker tracker = new StagedFlagsTracker(mFile);
+
+        assertTrue(tracker.update("a*one", true));
+        assertTrue(tracker.update("a*two", true));
+        assertFalse(tracker.update("a*two", true));
+        assertTrue(tracker.update("b*one", true));
+        assertFalse(tracker.update("b*two", false));
+
+        assertEquals(3, tracker.getPendingCount());
+        assertEquals(2, tracker.getPendingCount("a"));
+        assertEquals(1, tracker.getPendingCount("b"));
+        assertEquals(0, tracker.getPendingCount("c"));
+
+        assertTrue(tracker.update("a*one", false));
+        assertEquals(1, tracker.getPendingCount("a"));
+    }
+
+    @Test
+    public void testPersists() {
+        StagedFlagsTracker tracker = new StagedFlagsTracker(mFile);
+        tracker.update("a*one", true);
+        tracker.update("b*one", true);
+        tracker.persist();
+
+        StagedFlagsTracker reloaded = new StagedFlagsTracker(mFile);
+        assertEquals(2, reloaded.getPendingCount());
+        assertEquals(1, reloaded.getPendingCount("a"));
+    }
+
+    @Test
+    public void testCompactDropsAppliedFlags() {
+        StagedFlagsTracker tracker = new StagedFlagsTracker(mFile);
+        tracker.update("a*one", true);
+        tracker.update("a*two", true);
+        tracker.update("b*one", true);
+        tracker.persist();
+
+        tracker.compact(Set.of("a*two", "c*one"));
+
+        assertEquals(1, tracker.getPendingCount());
+        assertEquals(1, tracker.getPendingCount("a"));
+        assertEquals(0, tracker.getPendingCount("b"));
+        assertEquals(1, new StagedFlagsTracker(mFile).getPendingCount());
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2024 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.server.deviceconfig.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.runner.AndroidJUnit4;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(AndroidJUnit4.class)
+public class DeviceConfigDbAdapterTest {
+    private Context mContext;
+    private DeviceConfigDbHelper mHelper;
+    private DeviceConfigDbAdapter mAdapter;
+
+    @Before
+    public void setUp() {
+        mContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        mContext.deleteDatabase(DeviceConfigDbHelper.DATABASE_NAME);
+        mHelper = new DeviceConfigDbHelper(mContext);
+        mAdapter = new DeviceConfigDbAdapter(mHelper.getWritableDatabase());
+    }
+
+    @After
+    public void tearDown() {
+        mHelper.close();
+        mContext.deleteDatabase(DeviceConfigDbHelper.DATABASE_NAME);
+    }
+
+    @Test
+    public void testUpdateReplacesValue() {
+        mAdapter.setValue("a", "one", "1", false);
+        mAdapter.setValue("a", "two", "2", false);
+        mAdapter.setValue("a", "one", "updated", false);
+
+        assertEquals(Map.of("one", "updated", "two", "2"), mAdapter.getValuesForNamespace("a"));
+    }
+
+    @Test
+    public void testGetSomeKeys() {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < 1200; i++) {
+            values.put("key" + i, "value" + i);
+        }
+        mAdapter.setValues("a", values);
+        mAdapter.setValue("b", "key0", "other", false);
+
+        assertEquals(Map.of("key1", "value1", "key2", "value2"),
+                mAdapter.getValuesForNamespace("a", "key1", "key2", "missing"));
+        // more keys than fit in one query
+        assertEquals(values, mAdapter.getValuesForNamespace("a",
+                values.keySet().toArray(new String[0])));
+    }
+
+    @Test
+    public void testGetKeysAroundQueryLimit() {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < 1001; i++) {
+            values.put("key" + i, "value" + i);
+        }
+        mAdapter.setValues("a", values);
+
+        // keys are queried 500 at a time
+        for (int count : new int[] {499, 500, 501, 1000, 1001}) {
+            Map<String, String> expected = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                expected.put("key" + i, "value" + i);
+            }
+            assertEquals(expected, mAdapter.getValuesForNamespace("a",
+                    expected.keySet().toArray(new String[0])));
+        }
+    }
+
+    @Test
+    public void testSetValuesOfSeveralNamespaces() {
+        assertTrue(mAdapter.setValues(Map.of(
+                "a", Map.of("one", "1", "two", "2"),
+                "b", Map.of("one", "b1"))));
+
+        assertEquals(Map.of(
+                "a", Map.of("one", "1", "two", "2"),
+                "b", Map.of("one", "b1")), mAdapter.getAllValues());
+    }
+
+    @Test
+    public void testDeleteNamespace() {
+        mAdapter.setValues(Map.of(
+                "a", Map.of("one", "1", "two", "2"),
+                "b", Map.of("one", "b1")));
+
+        assertEquals(2, mAdapter.deleteNamespace("a"));
+        assertEquals(Map.of("b", Map.of("one", "b1")), mAdapter.getAllValues());
+        assertEquals(1, mAdapter.deleteAll());
+        assertTrue(mAdapter.getAllValues().isEmpty());
+    }
+
+    @Test
+    public void testImportMergesAndReportsChangedKeys() {
+        mAdapter.setValues(Map.of(
+                "a", Map.of("same", "1", "changed", "old"),
+                "b", Map.of("kept", "b")));
+
+        Map<String, Set<String>> changed = mAdapter.importValues(Map.of(
+                "a", Map.of("same", "1", "changed", "new", "added", "2")), false);
+
+        assertEquals(Map.of("a", Set.of("changed", "added")), changed);
+        assertEquals(Map.of(
+                "a", Map.of("same", "1", "changed", "new", "added", "2"),
+                "b", Map.of("kept", "b")), mAdapter.getAllValues());
+    }
+
+    @Test
+    public void testImportReplaces() {
+        mAdapter.setValues(Map.of(
+                "a", Map.of("same", "1", "removed", "x"),
+                "b", Map.of("removed", "b")));
+
+        Map<String, Set<String>> changed = mAdapter.importValues(Map.of(
+                "a", Map.of("same", "1")), true);
+
+        assertEquals(Map.of("a", Set.of("removed"), "b", Set.of("removed")), changed);
+        assertEquals(Map.of("a", Map.of("same", "1")), mAdapter.getAllValues());
+    }
+
+    @Test
+    public void testRollbackToSnapshot() {
+        mAdapter.setValues(Map.of(
+                "a", Map.of("same", "1", "changed", "old"),
+                "b", Map.of("removed", "b")));
+        long id = mAdapter.createSnapshot(1000);
+        mAdapter.setValue("a", "changed", "new", false);
+        mAdapter.setValue("c", "added", "c", false);
+        mAdapter.deleteValue("b", "removed");
+
+        Map<String, Set<String>> changed = mAdapter.rollbackToSnapshot(id);
+
+        assertEquals(Map.of("a", Set.of("changed"), "b", Set.of("removed"),
+                "c", Set.of("added")), changed);
+        assertEquals(Map.of(
+                "a", Map.of("same", "1", "changed", "old"),
+                "b", Map.of("removed", "b")), mAdapter.getAllValues());
+        // nothing left to roll back
+        assertTrue(mAdapter.rollbackToSnapshot(id).isEmpty());
+        assertNull(mAdapter.rollbackToSnapshot(id + 1));
+    }
+
+    @Test
+    public void testKeepsNewestSnapshots() {
+        mAdapter.setValue("a", "one", "1", false);
+        long first = mAdapter.createSnapshot(1000);
+        long last = first;
+        for (int i = 0; i < DeviceConfigDbAdapter.MAX_SNAPSHOTS; i++) {
+            last = mAdapter.createSnapshot(2000 + i);
+        }
+
+        List<DeviceConfigDbAdapter.SnapshotInfo> snapshots = mAdapter.getSnapshots();
+        assertEquals(DeviceConfigDbAdapter.MAX_SNAPSHOTS, snapshots.size());
+        assertEquals(last, snapshots.get(snapshots.size() - 1).id);
+        assertEquals(1, snapshots.get(0).valueCount);
+        assertNull(mAdapter.rollbackToSnapshot(first));
+    }
+}